@@ -0,0 +1,200 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.binary;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.openex.gate.binary.gl.transaction.Batch;
+import software.openex.gate.binary.gl.transaction.BatchBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.Transaction;
+import software.openex.gate.binary.gl.transaction.TransactionBinaryRepresentation;
+import software.openex.gate.binary.gl.wallet.Wallet;
+import software.openex.gate.binary.gl.wallet.WalletBinaryRepresentation;
+import software.openex.gate.binary.gl.wallet.Wallets;
+import software.openex.gate.binary.gl.wallet.WalletsBinaryRepresentation;
+import software.openex.gate.binary.oms.order.BuyLimitOrder;
+import software.openex.gate.binary.oms.order.LimitOrderBinaryRepresentation;
+import software.openex.gate.binary.oms.order.book.OrderBook;
+import software.openex.gate.binary.oms.order.book.OrderBookBinaryRepresentation;
+import software.openex.gate.binary.oms.order.record.OrderRecord;
+import software.openex.gate.binary.oms.order.record.OrderRecordBinaryRepresentation;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+
+import static io.vertx.core.json.Json.encodeToBuffer;
+import static java.lang.foreign.Arena.ofConfined;
+import static java.lang.foreign.Arena.ofShared;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Encoding/decoding benchmarks of binary representations that are used on every request.
+ *
+ * @author Alireza Pourtaghi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BinaryCodecBenchmark {
+
+    @Param({"10", "100"})
+    private int items;
+
+    private Arena arena;
+    private BuyLimitOrder limitOrder;
+    private Transaction transaction;
+    private Transaction[] transactions;
+    private MemorySegment orderBook;
+    private MemorySegment orderRecord;
+    private MemorySegment wallets;
+
+    @Setup
+    public void setup() {
+        arena = ofShared();
+        limitOrder = new BuyLimitOrder(1, 1735689600000L, "BTC/USDT", "0.25", "97000.50");
+        transaction = transaction(0);
+
+        transactions = new Transaction[items];
+        for (int i = 0; i < items; i++) {
+            transactions[i] = transaction(i);
+        }
+
+        final var bids = new ArrayList<BinaryRepresentation<OrderRecord>>(items);
+        final var asks = new ArrayList<BinaryRepresentation<OrderRecord>>(items);
+        for (int i = 0; i < items; i++) {
+            bids.add(encoded(new OrderRecordBinaryRepresentation(arena, orderRecord(i, "BUY"))));
+            asks.add(encoded(new OrderRecordBinaryRepresentation(arena, orderRecord(i, "SELL"))));
+        }
+
+        orderBook = encoded(new OrderBookBinaryRepresentation(arena, new OrderBook(bids, asks))).segment();
+        orderRecord = encoded(new OrderRecordBinaryRepresentation(arena, orderRecord(0, "BUY"))).segment();
+
+        final var walletItems = new ArrayList<BinaryRepresentation<Wallet>>(items);
+        for (int i = 0; i < items; i++) {
+            walletItems.add(encoded(new WalletBinaryRepresentation(arena, new Wallet(1, 1000, i, "USDT", 1_000_000L * i))));
+        }
+
+        wallets = encoded(new WalletsBinaryRepresentation(arena, new Wallets(walletItems))).segment();
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public void encodeLimitOrder(final Blackhole blackhole) {
+        try (final var arena = ofConfined()) {
+            final var message = new LimitOrderBinaryRepresentation(arena, limitOrder);
+            message.encodeV1();
+            blackhole.consume(message.segment());
+        }
+    }
+
+    @Benchmark
+    public void encodeTransaction(final Blackhole blackhole) {
+        try (final var arena = ofConfined()) {
+            final var message = new TransactionBinaryRepresentation(arena, transaction);
+            message.encodeV1();
+            blackhole.consume(message.segment());
+        }
+    }
+
+    @Benchmark
+    public void encodeBatch(final Blackhole blackhole) {
+        try (final var arena = ofConfined()) {
+            final var batch = new ArrayList<BinaryRepresentation<Transaction>>(transactions.length);
+            for (final var batchItem : transactions) {
+                batch.add(encoded(new TransactionBinaryRepresentation(arena, batchItem)));
+            }
+
+            final var message = new BatchBinaryRepresentation(arena, new Batch(batch));
+            message.encodeV1();
+            blackhole.consume(message.segment());
+        }
+    }
+
+    @Benchmark
+    public void decodeOrderBook(final Blackhole blackhole) {
+        blackhole.consume(OrderBookBinaryRepresentation.bids(orderBook));
+        blackhole.consume(OrderBookBinaryRepresentation.asks(orderBook));
+    }
+
+    @Benchmark
+    public void visitOrderBook(final Blackhole blackhole) {
+        final var bids = new ArrayList<OrderRecord>(items);
+        final var asks = new ArrayList<OrderRecord>(items);
+        OrderBookBinaryRepresentation.visit(orderBook,
+                bid -> bids.add(OrderRecordBinaryRepresentation.decode(bid)),
+                ask -> asks.add(OrderRecordBinaryRepresentation.decode(ask)));
+
+        blackhole.consume(bids);
+        blackhole.consume(asks);
+    }
+
+    @Benchmark
+    public Buffer renderOrderBook() {
+        return JsonWriter.render(orderBook, OrderBookBinaryRepresentation::writeJson);
+    }
+
+    @Benchmark
+    public Buffer encodeOrderBookJson() {
+        return encodeToBuffer(new JsonObject()
+                .put("bids", OrderBookBinaryRepresentation.bids(orderBook))
+                .put("asks", OrderBookBinaryRepresentation.asks(orderBook)));
+    }
+
+    @Benchmark
+    public OrderRecord decodeOrderRecord() {
+        return OrderRecordBinaryRepresentation.decode(orderRecord);
+    }
+
+    @Benchmark
+    public Wallet[] decodeWallets() {
+        return WalletsBinaryRepresentation.items(wallets);
+    }
+
+    @Benchmark
+    public Buffer renderWallets() {
+        return JsonWriter.render(wallets, WalletsBinaryRepresentation::writeJson);
+    }
+
+    @Benchmark
+    public Buffer encodeWalletsJson() {
+        return encodeToBuffer(WalletsBinaryRepresentation.items(wallets));
+    }
+
+    private static Transaction transaction(final int i) {
+        return new Transaction(1, 1000, 1, 2000, 1, "tx-" + i, "USDT", 1_000_000L, 0, "{\"source\":\"benchmark\"}");
+    }
+
+    private static OrderRecord orderRecord(final int i, final String side) {
+        return new OrderRecord(i, "BTC/USDT", side, "LIMIT", "0.25", "97000.50", "0.25", "ACTIVE", "", 1735689600000L);
+    }
+
+    private static <T, R extends BinaryRepresentation<T>> R encoded(final R binaryRepresentation) {
+        binaryRepresentation.encodeV1();
+        return binaryRepresentation;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Contention benchmarks of connection checkout; every invocation runs the given number of concurrent callers on
+ * virtual threads, each checking out and giving back a pooled object repeatedly with the same timed wait as pool.
+ *
+ * @author Alireza Pourtaghi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class CheckoutBenchmark {
+    private static final int POOL_SIZE = 10;
+    private static final int CHECKOUTS = 100;
+
+    @Param({"1", "8", "64", "1024"})
+    private int callers;
+
+    private ArrayBlockingQueue<Object> queue;
+    private IdleStack<Object> stack;
+
+    @Setup
+    public void setup() {
+        queue = new ArrayBlockingQueue<>(POOL_SIZE);
+        stack = new IdleStack<>();
+        for (int i = 1; i <= POOL_SIZE; i++) {
+            queue.offer(new Object());
+            stack.push(new Object());
+        }
+    }
+
+    @Benchmark
+    public void arrayBlockingQueue() throws InterruptedException {
+        run(() -> {
+            final var item = queue.poll(5000, MILLISECONDS);
+            queue.offer(item);
+        });
+    }
+
+    @Benchmark
+    public void idleStack() throws InterruptedException {
+        run(() -> {
+            var item = stack.pop();
+            if (item == null) item = stack.pop(5000, MILLISECONDS);
+            stack.push(item);
+        });
+    }
+
+    private void run(final Checkout checkout) throws InterruptedException {
+        final var threads = new ArrayList<Thread>(callers);
+        for (int i = 1; i <= callers; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    for (int j = 1; j <= CHECKOUTS; j++) checkout.run();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (final var thread : threads) thread.join();
+    }
+
+    @FunctionalInterface
+    private interface Checkout {
+        void run() throws InterruptedException;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.openex.gate.binary.gl.transaction.Transaction;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Benchmarks of building the canonical signed content of a transaction.
+ *
+ * @author Alireza Pourtaghi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SignatureContentBenchmark {
+    private Transaction transaction;
+    private SignatureContent content;
+
+    @Setup
+    public void setup() {
+        transaction = new Transaction(1, 1001L, 1, 2002L, 1, "8f14e45f-ceea-467f-a0e6-7d1a4f6e3c2b", "USDT",
+                125000L, 0L, "{\"reference\":\"settlement\"}");
+        content = new SignatureContent();
+    }
+
+    @Benchmark
+    public void buildWithFormat(final Blackhole blackhole) {
+        final var bytes = format("%s,%s,%s,%s,%s,%s,%s",
+                transaction.getLedger(),
+                transaction.getSourceAccount(),
+                transaction.getSourceWallet(),
+                transaction.getDestinationAccount(),
+                transaction.getDestinationWallet(),
+                transaction.getCurrency(),
+                transaction.getAmount()).getBytes(UTF_8);
+
+        blackhole.consume(bytes);
+    }
+
+    @Benchmark
+    public void buildWithContent(final Blackhole blackhole) {
+        content.reset();
+        content.field(transaction.getLedger())
+                .field(transaction.getSourceAccount())
+                .field(transaction.getSourceWallet())
+                .field(transaction.getDestinationAccount())
+                .field(transaction.getDestinationWallet())
+                .field(transaction.getCurrency())
+                .field(transaction.getAmount());
+
+        blackhole.consume(content.bytes());
+        blackhole.consume(content.length());
+    }
+}
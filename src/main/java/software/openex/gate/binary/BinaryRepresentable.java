@@ -45,6 +45,12 @@ public interface BinaryRepresentable {
     // Flags; 8 flags can be used in a single byte
     byte FGS = 0b00000000;
 
+    // Correlation id flag; if set, an 8 bytes correlation id trails the representation
+    byte CID = 0b00000010;
+
+    // Correlation id trailer size
+    int CTS = 8;
+
     // Line feed
     byte LFD = 0x0A;
 
@@ -59,6 +65,10 @@ public interface BinaryRepresentable {
         return (flags(segment) & 0b00000001) == 0b00000001;
     }
 
+    static boolean isCorrelated(final MemorySegment segment) {
+        return (flags(segment) & CID) == CID;
+    }
+
     static byte version(final MemorySegment segment) {
         return segment.get(BYTE, 0);
     }
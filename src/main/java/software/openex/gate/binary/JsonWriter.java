@@ -0,0 +1,177 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.binary;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+
+import java.lang.foreign.MemorySegment;
+import java.util.function.BiConsumer;
+
+import static io.netty.buffer.Unpooled.buffer;
+import static java.lang.Math.addExact;
+import static java.lang.Math.min;
+import static java.lang.Math.multiplyExact;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static software.openex.gate.binary.BinaryRepresentable.BYTE;
+import static software.openex.gate.binary.BinaryRepresentable.INT;
+
+/**
+ * Minimal streaming JSON writer that renders fields of binary representations straight into a network buffer without
+ * creating intermediate model objects or strings. Be curious that the class is not thread safe.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class JsonWriter {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(US_ASCII);
+
+    private final ByteBuf buffer;
+    private final byte[] digits;
+    private boolean comma;
+
+    private JsonWriter(final int initialCapacity) {
+        this.buffer = buffer(initialCapacity);
+        this.digits = new byte[20];
+        this.comma = false;
+    }
+
+    /**
+     * Renders a binary representation as JSON.
+     *
+     * @param segment binary representation including its header
+     * @param writer  representation specific JSON writer
+     * @return rendered JSON
+     */
+    @SuppressWarnings("deprecation")
+    public static Buffer render(final MemorySegment segment, final BiConsumer<MemorySegment, JsonWriter> writer) {
+        final var jsonWriter = new JsonWriter((int) min(MAX_CAPACITY, multiplyExact(segment.byteSize(), 2)));
+        writer.accept(segment, jsonWriter);
+
+        // Wrapping the network buffer avoids a copy; Vert.x 4 has no other public API for it.
+        return Buffer.buffer(jsonWriter.buffer);
+    }
+
+    public JsonWriter beginObject() {
+        separate();
+        buffer.writeByte('{');
+        comma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        buffer.writeByte('}');
+        comma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separate();
+        buffer.writeByte('[');
+        comma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        buffer.writeByte(']');
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a field name; names must be plain ascii and need no escaping.
+     */
+    public JsonWriter name(final String name) {
+        separate();
+        buffer.writeByte('"');
+        buffer.writeCharSequence(name, US_ASCII);
+        buffer.writeByte('"');
+        buffer.writeByte(':');
+        comma = false;
+        return this;
+    }
+
+    public JsonWriter value(final long value) {
+        separate();
+
+        var remaining = value;
+        var index = digits.length;
+        do {
+            digits[--index] = (byte) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+
+        if (value < 0) buffer.writeByte('-');
+        buffer.writeBytes(digits, index, digits.length - index);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Writes a size prefixed and null terminated string of a binary representation as an escaped JSON string.
+     *
+     * @param segment  binary representation
+     * @param position position of the string size prefix
+     * @return position right after the string
+     */
+    public long string(final MemorySegment segment, final long position) {
+        separate();
+
+        final var size = segment.get(INT, position);
+        final var start = addExact(position, INT.byteSize());
+        // Null terminated
+        final var end = start + size - 1;
+
+        buffer.writeByte('"');
+        var run = start;
+        for (var i = start; i < end; i++) {
+            final var b = segment.get(BYTE, i);
+            if (b == '"' || b == '\\' || (b >= 0 && b < 0x20)) {
+                write(segment, run, i);
+                buffer.writeByte('\\');
+                switch (b) {
+                    case '"' -> buffer.writeByte('"');
+                    case '\\' -> buffer.writeByte('\\');
+                    case '\n' -> buffer.writeByte('n');
+                    case '\r' -> buffer.writeByte('r');
+                    case '\t' -> buffer.writeByte('t');
+                    default -> buffer.writeByte('u').writeByte('0').writeByte('0')
+                            .writeByte(HEX[b >> 4]).writeByte(HEX[b & 0x0F]);
+                }
+
+                run = i + 1;
+            }
+        }
+
+        write(segment, run, end);
+        buffer.writeByte('"');
+        comma = true;
+
+        return start + size;
+    }
+
+    private void write(final MemorySegment segment, final long from, final long to) {
+        if (to > from) {
+            buffer.writeBytes(segment.asSlice(from, to - from).asByteBuffer());
+        }
+    }
+
+    private void separate() {
+        if (comma) buffer.writeByte(',');
+    }
+}
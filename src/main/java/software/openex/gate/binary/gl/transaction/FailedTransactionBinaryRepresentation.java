@@ -18,6 +18,7 @@
 package software.openex.gate.binary.gl.transaction;
 
 import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.JsonWriter;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
@@ -69,4 +70,15 @@ public final class FailedTransactionBinaryRepresentation extends BinaryRepresent
 
         return new FailedTransaction(id, reason);
     }
+
+    public static void writeJson(final MemorySegment segment, final JsonWriter writer) {
+        long position = RHS;
+
+        writer.beginObject();
+
+        position = writer.name("id").string(segment, position);
+        writer.name("reason").string(segment, position);
+
+        writer.endObject();
+    }
 }
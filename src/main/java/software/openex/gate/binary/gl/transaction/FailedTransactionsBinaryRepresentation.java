@@ -19,6 +19,7 @@ package software.openex.gate.binary.gl.transaction;
 
 import software.openex.gate.binary.BinaryRepresentable;
 import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.JsonWriter;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
@@ -68,4 +69,19 @@ public final class FailedTransactionsBinaryRepresentation extends BinaryRepresen
 
         return items;
     }
+
+    public static void writeJson(final MemorySegment segment, final JsonWriter writer) {
+        long position = RHS;
+
+        final var itemsSize = segment.get(INT, position);
+        position += INT.byteSize();
+
+        writer.beginArray();
+        for (int i = 0; i < itemsSize; i++) {
+            final var size = RHS + BinaryRepresentable.size(segment.asSlice(position));
+            FailedTransactionBinaryRepresentation.writeJson(segment.asSlice(position, size), writer);
+            position += size;
+        }
+        writer.endArray();
+    }
 }
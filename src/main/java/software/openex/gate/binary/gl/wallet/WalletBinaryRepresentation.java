@@ -18,6 +18,7 @@
 package software.openex.gate.binary.gl.wallet;
 
 import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.JsonWriter;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
@@ -78,4 +79,26 @@ public final class WalletBinaryRepresentation extends BinaryRepresentation<Walle
 
         return new Wallet(ledger, account, wallet, currency, balance);
     }
+
+    public static void writeJson(final MemorySegment segment, final JsonWriter writer) {
+        long position = RHS;
+
+        writer.beginObject();
+
+        writer.name("ledger").value(segment.get(INT, position));
+        position += INT.byteSize();
+
+        writer.name("account").value(segment.get(LONG, position));
+        position += LONG.byteSize();
+
+        writer.name("wallet").value(segment.get(INT, position));
+        position += INT.byteSize();
+
+        position = writer.name("currency").string(segment, position);
+
+        writer.name("balance").value(segment.get(LONG, position));
+        writer.name("_thisTurnAccumulatedOverdraft").value(0);
+
+        writer.endObject();
+    }
 }
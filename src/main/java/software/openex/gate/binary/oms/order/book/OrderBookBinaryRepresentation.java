@@ -19,6 +19,7 @@ package software.openex.gate.binary.oms.order.book;
 
 import software.openex.gate.binary.BinaryRepresentable;
 import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.JsonWriter;
 import software.openex.gate.binary.oms.order.record.OrderRecord;
 import software.openex.gate.binary.oms.order.record.OrderRecordBinaryRepresentation;
 
@@ -26,6 +27,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Alireza Pourtaghi
@@ -59,41 +61,89 @@ public final class OrderBookBinaryRepresentation extends BinaryRepresentation<Or
     }
 
     public static List<OrderRecord> bids(final MemorySegment segment) {
-        long position = RHS;
-
-        final var bidsSize = segment.get(INT, position);
-        position += INT.byteSize();
-
-        final var bids = new ArrayList<OrderRecord>(bidsSize);
-        for (int i = 1; i <= bidsSize; i++) {
-            final var size = RHS + BinaryRepresentable.size(segment.asSlice(position));
-            bids.add(OrderRecordBinaryRepresentation.decode(segment.asSlice(position, size)));
-            position += size;
-        }
+        final var bids = new ArrayList<OrderRecord>(segment.get(INT, RHS));
+        walk(segment, RHS, record -> bids.add(OrderRecordBinaryRepresentation.decode(record)));
 
         return bids;
     }
 
     public static List<OrderRecord> asks(final MemorySegment segment) {
-        long position = RHS;
+        final var asksPosition = walk(segment, RHS, record -> {
+        });
 
-        final var bidsSize = segment.get(INT, position);
-        position += INT.byteSize();
-        for (int i = 1; i <= bidsSize; i++) {
-            final var size = RHS + BinaryRepresentable.size(segment.asSlice(position));
-            position += size;
-        }
+        final var asks = new ArrayList<OrderRecord>(segment.get(INT, asksPosition));
+        walk(segment, asksPosition, record -> asks.add(OrderRecordBinaryRepresentation.decode(record)));
 
-        final var asksSize = segment.get(INT, position);
-        position += INT.byteSize();
+        return asks;
+    }
+
+    /**
+     * Walks bids and asks of an order book in a single pass; each visitor receives the complete binary representation
+     * of an order record, including its header.
+     *
+     * @param segment binary representation of an order book
+     * @param bids    visitor of bid records
+     * @param asks    visitor of ask records
+     */
+    public static void visit(final MemorySegment segment, final Consumer<MemorySegment> bids,
+                             final Consumer<MemorySegment> asks) {
+
+        walk(segment, walk(segment, RHS, bids), asks);
+    }
+
+    public static void writeJson(final MemorySegment segment, final JsonWriter writer) {
+        writeJson(segment, writer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes an order book as JSON including at most depth number of records on each side.
+     *
+     * @param segment binary representation of an order book
+     * @param writer  JSON writer
+     * @param depth   maximum number of bids and asks to be written
+     */
+    public static void writeJson(final MemorySegment segment, final JsonWriter writer, final int depth) {
+        writer.beginObject();
+
+        writer.name("bids").beginArray();
+        final var asksPosition = writeJson(segment, RHS, writer, depth);
+        writer.endArray();
+
+        writer.name("asks").beginArray();
+        writeJson(segment, asksPosition, writer, depth);
+        writer.endArray();
+
+        writer.endObject();
+    }
+
+    private static long writeJson(final MemorySegment segment, final long offset, final JsonWriter writer,
+                                  final int depth) {
+
+        final var written = new int[1];
+        return walk(segment, offset, record -> {
+            if (written[0]++ < depth) OrderRecordBinaryRepresentation.writeJson(record, writer);
+        });
+    }
 
-        final var asks = new ArrayList<OrderRecord>(asksSize);
-        for (int i = 1; i <= asksSize; i++) {
+    /**
+     * Walks records of one side of an order book.
+     *
+     * @param segment binary representation of an order book
+     * @param offset  position of records count of side
+     * @param visitor visitor of records
+     * @return position right after the last record of side
+     */
+    private static long walk(final MemorySegment segment, final long offset, final Consumer<MemorySegment> visitor) {
+        long position = offset;
+
+        final var recordsSize = segment.get(INT, position);
+        position += INT.byteSize();
+        for (int i = 1; i <= recordsSize; i++) {
             final var size = RHS + BinaryRepresentable.size(segment.asSlice(position));
-            asks.add(OrderRecordBinaryRepresentation.decode(segment.asSlice(position, size)));
+            visitor.accept(segment.asSlice(position, size));
             position += size;
         }
 
-        return asks;
+        return position;
     }
 }
@@ -18,6 +18,7 @@
 package software.openex.gate.binary.oms.order.record;
 
 import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.JsonWriter;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
@@ -119,4 +120,26 @@ public final class OrderRecordBinaryRepresentation extends BinaryRepresentation<
 
         return new OrderRecord(id, symbol, side, type, quantity, price, remaining, state, metadata, ts);
     }
+
+    public static void writeJson(final MemorySegment segment, final JsonWriter writer) {
+        long position = RHS;
+
+        writer.beginObject();
+
+        writer.name("id").value(segment.get(LONG, position));
+        position += LONG.byteSize();
+
+        position = writer.name("symbol").string(segment, position);
+        position = writer.name("side").string(segment, position);
+        position = writer.name("type").string(segment, position);
+        position = writer.name("quantity").string(segment, position);
+        position = writer.name("price").string(segment, position);
+        position = writer.name("remaining").string(segment, position);
+        position = writer.name("state").string(segment, position);
+        position = writer.name("metadata").string(segment, position);
+
+        writer.name("ts").value(segment.get(LONG, position));
+
+        writer.endObject();
+    }
 }
@@ -25,11 +25,15 @@ import io.vertx.micrometer.VertxPrometheusOptions;
 import org.slf4j.Logger;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
+import static java.lang.Integer.parseInt;
 import static java.lang.Runtime.getRuntime;
+import static java.util.Arrays.stream;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -45,8 +49,16 @@ public final class AppContext implements Closeable {
 
     private final Configuration configuration;
     private final SignatureVerifier signatureVerifier;
-    private final ConnectionPool glConnectionPool;
-    private final ConnectionPool omsConnectionPool;
+    private final Upstream glConnectionPool;
+    private final ShardRouter glRouter;
+    private final Upstream omsConnectionPool;
+    private final ShardRouter omsRouter;
+    private final BatchCoalescer glBatchCoalescer;
+    private final BatchSplitter glBatchSplitter;
+    private final ConcurrencyLimiter glConcurrencyLimiter;
+    private final ConcurrencyLimiter omsConcurrencyLimiter;
+    private final RateLimiter rateLimiter;
+    private final OrderBookCache omsOrderBookCache;
     private final Executors executors;
     private final Vertx vertx;
     private final HTTPServer httpServer;
@@ -55,11 +67,19 @@ public final class AppContext implements Closeable {
         addShutdownHook();
 
         this.configuration = new Configuration();
+        this.vertx = Vertx.vertx(vertxOptions(this.configuration));
         this.signatureVerifier = signatureVerifier(this.configuration);
-        this.glConnectionPool = glConnectionPool(this.configuration);
-        this.omsConnectionPool = omsConnectionPool(this.configuration);
+        this.glConnectionPool = glConnectionPool(this.configuration, this.vertx);
+        this.glRouter = router(this.configuration, this.vertx, "gl", "ledgers");
+        this.omsConnectionPool = omsConnectionPool(this.configuration, this.vertx);
+        this.omsRouter = router(this.configuration, this.vertx, "oms", "symbols");
+        this.glBatchCoalescer = glBatchCoalescer(this.configuration, this.glConnectionPool);
+        this.glBatchSplitter = this.glRouter != null ? new BatchSplitter(this.glRouter) : null;
+        this.glConcurrencyLimiter = concurrencyLimiter(this.configuration, "gl");
+        this.omsConcurrencyLimiter = concurrencyLimiter(this.configuration, "oms");
+        this.rateLimiter = rateLimiter(this.configuration);
+        this.omsOrderBookCache = omsOrderBookCache(this.configuration);
         this.executors = new Executors(this.configuration);
-        this.vertx = Vertx.vertx(vertxOptions(this.configuration));
         this.httpServer = new HTTPServer(this.configuration, this.vertx);
     }
 
@@ -116,14 +136,58 @@ public final class AppContext implements Closeable {
         return signatureVerifier;
     }
 
-    public ConnectionPool gl() {
+    public Upstream gl() {
         return glConnectionPool;
     }
 
-    public ConnectionPool oms() {
+    /**
+     * Returns the GL upstream responsible for the ledger; it is the only GL upstream if routing is not enabled.
+     *
+     * @param ledger ledger of message
+     * @return GL upstream
+     */
+    public Upstream gl(final int ledger) {
+        return glRouter != null ? glRouter.route(Integer.toString(ledger)) : glConnectionPool;
+    }
+
+    public Upstream oms() {
         return omsConnectionPool;
     }
 
+    /**
+     * Returns the OMS upstream responsible for the symbol; it is the only OMS upstream if routing is not enabled.
+     *
+     * @param symbol symbol of message
+     * @return OMS upstream
+     */
+    public Upstream oms(final String symbol) {
+        return omsRouter != null ? omsRouter.route(symbol) : omsConnectionPool;
+    }
+
+    public BatchCoalescer glBatchCoalescer() {
+        return glBatchCoalescer;
+    }
+
+    public BatchSplitter glBatchSplitter() {
+        return glBatchSplitter;
+    }
+
+    public ConcurrencyLimiter glConcurrencyLimiter() {
+        return glConcurrencyLimiter;
+    }
+
+    public ConcurrencyLimiter omsConcurrencyLimiter() {
+        return omsConcurrencyLimiter;
+    }
+
+    public RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    public OrderBookCache omsOrderBookCache() {
+        return omsOrderBookCache;
+    }
+
     public Executors executors() {
         return executors;
     }
@@ -145,34 +209,162 @@ public final class AppContext implements Closeable {
         return null;
     }
 
-    private static ConnectionPool glConnectionPool(final Configuration configuration) {
+    private static Upstream glConnectionPool(final Configuration configuration, final Vertx vertx) {
         if (configuration.loadBoolean("gl.connect")) {
-            return new ConnectionPool(
-                    configuration.loadString("gl.host"),
-                    configuration.loadInt("gl.port"),
-                    (int) configuration.loadDuration("gl.connect_timeout").toMillis(),
-                    (int) configuration.loadDuration("gl.request_timeout").toMillis(),
-                    configuration.loadInt("gl.connections_count"));
+            // Every GL message is sent to a shard when routing is enabled.
+            if (configuration.loadBoolean("gl.routing.enabled")) return null;
+            return connectionPool(configuration, vertx, "gl");
         }
 
         logger.warn("⚠\uFE0F gl.connect option has not been set");
         return null;
     }
 
-    private static ConnectionPool omsConnectionPool(final Configuration configuration) {
+    private static Upstream omsConnectionPool(final Configuration configuration, final Vertx vertx) {
         if (configuration.loadBoolean("oms.connect")) {
-            return new ConnectionPool(
-                    configuration.loadString("oms.host"),
-                    configuration.loadInt("oms.port"),
-                    (int) configuration.loadDuration("oms.connect_timeout").toMillis(),
-                    (int) configuration.loadDuration("oms.request_timeout").toMillis(),
-                    configuration.loadInt("oms.connections_count"));
+            // Every OMS message is sent to a shard when routing is enabled.
+            if (configuration.loadBoolean("oms.routing.enabled")) return null;
+            return connectionPool(configuration, vertx, "oms");
         }
 
         logger.warn("⚠\uFE0F oms.connect option has not been set");
         return null;
     }
 
+    private static ShardRouter router(final Configuration configuration, final Vertx vertx, final String name,
+                                      final String tableOption) {
+
+        if (configuration.loadBoolean(name + ".connect") && configuration.loadBoolean(name + ".routing.enabled")) {
+            final var shards = new HashMap<String, Upstream>();
+            for (final var shard : configuration.loadObject(name + ".routing.shards").entrySet()) {
+                final var endpoints = String.valueOf(shard.getValue().unwrapped());
+                shards.put(shard.getKey(), connectionPool(configuration, vertx, name, endpoints));
+            }
+
+            return new ShardRouter(configuration, name, tableOption, shards);
+        }
+
+        return null;
+    }
+
+    private static ConcurrencyLimiter concurrencyLimiter(final Configuration configuration, final String name) {
+        if (configuration.loadBoolean(name + ".concurrency_limit.enabled")) {
+            return new ConcurrencyLimiter(
+                    name,
+                    configuration.loadInt(name + ".concurrency_limit.initial_limit"),
+                    configuration.loadInt(name + ".concurrency_limit.min_limit"),
+                    configuration.loadInt(name + ".concurrency_limit.max_limit"),
+                    configuration.loadDuration(name + ".concurrency_limit.latency_threshold").toNanos(),
+                    configuration.loadDouble(name + ".concurrency_limit.backoff_ratio"));
+        }
+
+        return null;
+    }
+
+    private static RateLimiter rateLimiter(final Configuration configuration) {
+        if (configuration.loadBoolean("http.server.rate_limit.enabled")) {
+            return new RateLimiter(
+                    configuration.loadDouble("http.server.rate_limit.rate"),
+                    configuration.loadInt("http.server.rate_limit.burst"),
+                    configuration.loadDuration("http.server.rate_limit.idle_timeout").toNanos(),
+                    configuration.loadInt("http.server.rate_limit.max_entries"));
+        }
+
+        return null;
+    }
+
+    private static BatchCoalescer glBatchCoalescer(final Configuration configuration, final Upstream gl) {
+        if (gl != null && configuration.loadBoolean("gl.batch_coalescing.enabled")) {
+            return new BatchCoalescer(
+                    gl,
+                    configuration.loadDuration("gl.batch_coalescing.window").toNanos(),
+                    configuration.loadInt("gl.batch_coalescing.max_transactions"));
+        }
+
+        return null;
+    }
+
+    private static OrderBookCache omsOrderBookCache(final Configuration configuration) {
+        if (configuration.loadBoolean("oms.order_book_cache.enabled")) {
+            return new OrderBookCache(
+                    configuration.loadDuration("oms.order_book_cache.ttl").toNanos(),
+                    configuration.loadInt("oms.order_book_cache.max_entries"));
+        }
+
+        return null;
+    }
+
+    private static Upstream connectionPool(final Configuration configuration, final Vertx vertx, final String name) {
+        return connectionPool(configuration, vertx, name, configuration.loadString(name + ".endpoints"));
+    }
+
+    private static Upstream connectionPool(final Configuration configuration, final Vertx vertx, final String name,
+                                           final String endpointsList) {
+
+        final var addresses = stream(endpointsList.split(","))
+                .map(String::strip)
+                .filter(address -> !address.isEmpty())
+                .toList();
+
+        if (addresses.isEmpty()) {
+            return connectionPool(configuration, vertx, name,
+                    configuration.loadString(name + ".host"),
+                    configuration.loadInt(name + ".port"));
+        }
+
+        final var endpoints = new ArrayList<BalancedUpstream.Endpoint>(addresses.size());
+        for (final var address : addresses) {
+            final var separator = address.lastIndexOf(':');
+            final var host = address.substring(0, separator);
+            final var port = parseInt(address.substring(separator + 1));
+            final var upstream = connectionPool(configuration, vertx, name, host, port);
+            endpoints.add(new BalancedUpstream.Endpoint(name, address, upstream));
+        }
+
+        return new BalancedUpstream(
+                endpoints,
+                BalancedUpstream.Balancer.of(configuration.loadString(name + ".balancing")),
+                configuration.loadInt(name + ".ejection.consecutive_failures"),
+                configuration.loadDuration(name + ".ejection.duration").toNanos());
+    }
+
+    private static Upstream connectionPool(final Configuration configuration, final Vertx vertx, final String name,
+                                           final String host, final int port) {
+
+        final var connectTimeout = (int) configuration.loadDuration(name + ".connect_timeout").toMillis();
+        final var requestTimeout = (int) configuration.loadDuration(name + ".request_timeout").toMillis();
+        final var connectionsCount = configuration.loadInt(name + ".connections_count");
+
+        final Upstream upstream = switch (configuration.loadString(name + ".transport")) {
+            case "async" ->
+                    new AsyncConnectionPool(vertx, host, port, connectTimeout, requestTimeout, connectionsCount);
+            case "blocking" -> configuration.loadBoolean(name + ".multiplexing_enabled") ?
+                    new MultiplexedConnectionPool(host, port, connectTimeout, requestTimeout, connectionsCount) :
+                    new ConnectionPool(name, host, port, connectTimeout, requestTimeout,
+                            configuration.loadInt(name + ".min_connections_count"),
+                            connectionsCount,
+                            configuration.loadDuration(name + ".idle_timeout").toMillis(),
+                            configuration.loadDuration(name + ".health_check_interval").toMillis(),
+                            configuration.loadDuration(name + ".reconnect_backoff_min").toMillis(),
+                            configuration.loadDuration(name + ".reconnect_backoff_max").toMillis());
+
+            default -> throw new IllegalArgumentException("unknown " + name + ".transport option");
+        };
+
+        if (configuration.loadBoolean(name + ".circuit_breaker.enabled")) {
+            return new CircuitBreaker(upstream, name, host + ":" + port,
+                    configuration.loadDuration(name + ".circuit_breaker.window").toNanos(),
+                    configuration.loadInt(name + ".circuit_breaker.minimum_requests"),
+                    configuration.loadDouble(name + ".circuit_breaker.failure_rate_threshold"),
+                    configuration.loadDuration(name + ".circuit_breaker.slow_call_duration").toNanos(),
+                    configuration.loadDouble(name + ".circuit_breaker.slow_call_rate_threshold"),
+                    configuration.loadDuration(name + ".circuit_breaker.open_duration").toNanos(),
+                    configuration.loadInt(name + ".circuit_breaker.half_open_probes"));
+        }
+
+        return upstream;
+    }
+
     private static VertxOptions vertxOptions(final Configuration configuration) {
         var metricsServerOptions = new HttpServerOptions()
                 .setHost(configuration.loadString("metrics.server.host"))
@@ -206,7 +398,10 @@ public final class AppContext implements Closeable {
         try {
             if (httpServer != null) httpServer.close();
             if (executors != null) executors.close();
+            if (glBatchCoalescer != null) glBatchCoalescer.close();
+            if (omsRouter != null) omsRouter.close();
             if (omsConnectionPool != null) omsConnectionPool.close();
+            if (glRouter != null) glRouter.close();
             if (glConnectionPool != null) glConnectionPool.close();
         } catch (Exception ex) {
             logger.error("{}", ex.getMessage());
@@ -0,0 +1,274 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.parsetools.RecordParser;
+import org.slf4j.Logger;
+import software.openex.gate.exceptions.ConnectionClosedException;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.Boolean.TRUE;
+import static java.lang.System.arraycopy;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static org.slf4j.LoggerFactory.getLogger;
+import static software.openex.gate.binary.BinaryRepresentable.RHS;
+import static software.openex.gate.binary.BinaryRepresentable.size;
+
+/**
+ * Non-blocking TCP connections pool built on top of vertx net client. Waiting for a connection or a response does not
+ * occupy any thread; each connection carries one in-flight request at a time.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class AsyncConnectionPool implements Upstream {
+    private static final Logger logger = getLogger(AsyncConnectionPool.class);
+
+    private final Vertx vertx;
+    private final NetClient client;
+    private final String host;
+    private final int port;
+    private final int connectTimeout;
+    private final int requestTimeout;
+    private final int connectionsCount;
+    private final ArrayDeque<Connection> idle;
+    private final ArrayDeque<Promise<Connection>> waiters;
+    private int total;
+
+    AsyncConnectionPool(final Vertx vertx, final String host, final int port, final int connectTimeout,
+                        final int requestTimeout, final int connectionsCount) {
+
+        this.vertx = vertx;
+        this.host = host;
+        this.port = port;
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.connectionsCount = connectionsCount;
+        this.idle = new ArrayDeque<>(connectionsCount);
+        this.waiters = new ArrayDeque<>();
+        this.client = vertx.createNetClient(new NetClientOptions()
+                .setConnectTimeout(connectTimeout)
+                .setReuseAddress(TRUE)
+                .setTcpKeepAlive(TRUE)
+                .setTcpNoDelay(TRUE));
+
+        for (int i = 1; i <= connectionsCount; i++) {
+            try {
+                synchronized (this) {
+                    total++;
+                }
+
+                release(open().toCompletionStage().toCompletableFuture().get());
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    @Override
+    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
+        try {
+            return sendAsync(message).toCompletionStage().toCompletableFuture().get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) throw cause;
+            throw ex;
+        }
+    }
+
+    @Override
+    public Future<MemorySegment> sendAsync(final MemorySegment message) {
+        final var request = Buffer.buffer(message.toArray(JAVA_BYTE));
+        return acquire().compose(connection -> connection.send(request));
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
+    private Future<Connection> acquire() {
+        final var waiter = Promise.<Connection>promise();
+
+        synchronized (this) {
+            final var connection = idle.poll();
+            if (connection != null) {
+                return Future.succeededFuture(connection);
+            }
+
+            if (total < connectionsCount) {
+                total++;
+                return open();
+            }
+
+            waiters.add(waiter);
+        }
+
+        vertx.setTimer(connectTimeout, id -> {
+            final boolean timedOut;
+            synchronized (this) {
+                timedOut = waiters.remove(waiter);
+            }
+
+            if (timedOut) waiter.fail(new TimeoutException());
+        });
+
+        return waiter.future();
+    }
+
+    private void release(final Connection connection) {
+        final Promise<Connection> waiter;
+        synchronized (this) {
+            waiter = waiters.poll();
+            if (waiter == null) idle.push(connection);
+        }
+
+        if (waiter != null) waiter.complete(connection);
+    }
+
+    private void discard(final Connection connection) {
+        final Promise<Connection> waiter;
+        synchronized (this) {
+            idle.remove(connection);
+            waiter = waiters.poll();
+            if (waiter == null) total--;
+        }
+
+        // The freed slot is handed over to the next waiter with a fresh connection.
+        if (waiter != null) open().onComplete(waiter);
+    }
+
+    /**
+     * Opens a new connection; the caller must have already reserved a slot in total connections count.
+     */
+    private Future<Connection> open() {
+        return client.connect(port, host)
+                .map(Connection::new)
+                .onFailure(ex -> {
+                    synchronized (this) {
+                        total--;
+                    }
+                });
+    }
+
+    @Override
+    public void close() {
+        logger.info("Closing async TCP connections pool ...");
+
+        client.close();
+    }
+
+    private final class Connection {
+        private final NetSocket socket;
+        private final RecordParser parser;
+        private byte[] header;
+        private volatile Promise<MemorySegment> inflight;
+        private volatile long timer;
+        private volatile boolean closing;
+
+        private Connection(final NetSocket socket) {
+            this.socket = socket;
+            this.parser = RecordParser.newFixed(RHS, this::handle);
+
+            socket.handler(parser);
+            socket.closeHandler(v -> closed());
+        }
+
+        private Future<MemorySegment> send(final Buffer request) {
+            final var promise = Promise.<MemorySegment>promise();
+            inflight = promise;
+            timer = vertx.setTimer(requestTimeout, id -> {
+                // The late response must not be read by the next request, so the connection is dropped.
+                if (promise.tryFail(new SocketTimeoutException())) close();
+            });
+
+            socket.write(request).onFailure(ex -> {
+                if (promise.tryFail(ex)) close();
+            });
+
+            return promise.future();
+        }
+
+        private void handle(final Buffer frame) {
+            if (header == null) {
+                final var headerBytes = frame.getBytes();
+                final var bodySize = size(ofArray(headerBytes));
+                if (bodySize > 0) {
+                    header = headerBytes;
+                    parser.fixedSizeMode(bodySize);
+                } else {
+                    complete(headerBytes);
+                }
+            } else {
+                final var response = new byte[RHS + frame.length()];
+                arraycopy(header, 0, response, 0, RHS);
+                frame.getBytes(0, frame.length(), response, RHS);
+
+                header = null;
+                parser.fixedSizeMode(RHS);
+                complete(response);
+            }
+        }
+
+        private void complete(final byte[] response) {
+            final var promise = inflight;
+            inflight = null;
+            vertx.cancelTimer(timer);
+
+            if (promise == null || closing) {
+                if (!closing) logger.warn("dropped unexpected response from {}:{}", host, port);
+                close();
+                return;
+            }
+
+            // A request that has already failed has closed the connection, which must not be handed out again.
+            if (promise.tryComplete(ofArray(response))) {
+                release(this);
+            } else {
+                close();
+            }
+        }
+
+        private void close() {
+            closing = true;
+            inflight = null;
+            socket.close();
+        }
+
+        private void closed() {
+            final var promise = inflight;
+            inflight = null;
+            vertx.cancelTimer(timer);
+
+            if (promise != null) promise.tryFail(new ConnectionClosedException());
+            discard(this);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.micrometer.core.instrument.Counter;
+import io.vertx.core.Future;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Upstream that balances messages over several endpoints of the same server. Endpoints that fail a number of requests
+ * in a row are ejected for a while; if all endpoints are ejected, they are all used again.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class BalancedUpstream implements Upstream {
+    private static final Logger logger = getLogger(BalancedUpstream.class);
+
+    private final Endpoint[] endpoints;
+    private final Balancer balancer;
+    private final int ejectionFailures;
+    private final long ejectionDuration;
+
+    BalancedUpstream(final List<Endpoint> endpoints, final Balancer balancer, final int ejectionFailures,
+                     final long ejectionDuration) {
+
+        this.endpoints = endpoints.toArray(Endpoint[]::new);
+        this.balancer = balancer;
+        this.ejectionFailures = ejectionFailures;
+        this.ejectionDuration = ejectionDuration;
+    }
+
+    @Override
+    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
+        final var endpoint = select();
+        final var start = endpoint.started();
+
+        try {
+            final var response = endpoint.upstream.send(arena, message);
+            endpoint.succeeded(start);
+            return response;
+        } catch (Exception ex) {
+            failed(endpoint);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Future<MemorySegment> sendAsync(final MemorySegment message) {
+        final var endpoint = select();
+        final var start = endpoint.started();
+
+        return endpoint.upstream.sendAsync(message).onComplete(result -> {
+            if (result.succeeded()) {
+                endpoint.succeeded(start);
+            } else {
+                failed(endpoint);
+            }
+        });
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        for (final var endpoint : endpoints) {
+            if (!endpoint.upstream.isNonBlocking()) return false;
+        }
+
+        return true;
+    }
+
+    private Endpoint select() {
+        final var now = nanoTime();
+        final var endpoint = balancer.select(endpoints, now);
+        return endpoint != null ? endpoint : balancer.select(endpoints, Long.MIN_VALUE);
+    }
+
+    private void failed(final Endpoint endpoint) {
+        endpoint.outstanding.decrementAndGet();
+
+        if (endpoint.failures.incrementAndGet() >= ejectionFailures) {
+            endpoint.failures.set(0);
+            endpoint.ejectedUntil = nanoTime() + ejectionDuration;
+            endpoint.ejections.increment();
+            logger.warn("ejecting endpoint {} for {} ms", endpoint.address, ejectionDuration / 1_000_000);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final var endpoint : endpoints) {
+            endpoint.upstream.close();
+        }
+    }
+
+    /**
+     * One endpoint of a balanced upstream together with its load and health state.
+     */
+    static final class Endpoint {
+        private static final double EWMA_WEIGHT = 0.2;
+        private static final double EWMA_DECAY = 1_000_000_000.0;
+
+        private final String address;
+        private final Upstream upstream;
+        private final AtomicInteger outstanding;
+        private final AtomicInteger failures;
+        private volatile double latency;
+        private volatile long measuredAt;
+        private volatile long ejectedUntil;
+        private final Counter ejections;
+
+        Endpoint(final String name, final String address, final Upstream upstream) {
+            this.address = address;
+            this.upstream = upstream;
+            this.outstanding = new AtomicInteger(0);
+            this.failures = new AtomicInteger(0);
+            this.latency = 0;
+            this.measuredAt = nanoTime();
+            this.ejectedUntil = nanoTime();
+            this.ejections = Meters.registry()
+                    .counter("gate.upstream.ejections", "upstream", name, "endpoint", address);
+        }
+
+        /**
+         * Whether endpoint can be selected at the given time; a time of Long.MIN_VALUE ignores ejection.
+         *
+         * @param now current time in nanoseconds
+         * @return true if endpoint is not ejected
+         */
+        boolean isAvailable(final long now) {
+            return now == Long.MIN_VALUE || now - ejectedUntil >= 0;
+        }
+
+        int outstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * Returns latency estimate that decays while endpoint is not measured, so an endpoint that has been slow once
+         * is tried again eventually.
+         *
+         * @param now current time in nanoseconds
+         * @return latency estimate in nanoseconds
+         */
+        double latency(final long now) {
+            return latency * Math.exp(-Math.max(0, now - measuredAt) / EWMA_DECAY);
+        }
+
+        private long started() {
+            outstanding.incrementAndGet();
+            return nanoTime();
+        }
+
+        private void succeeded(final long start) {
+            outstanding.decrementAndGet();
+            failures.set(0);
+
+            // Lost updates between concurrent responses are acceptable for an estimate.
+            final var now = nanoTime();
+            latency += EWMA_WEIGHT * ((now - start) - latency);
+            measuredAt = now;
+        }
+    }
+
+    /**
+     * Endpoint selection strategy.
+     */
+    @FunctionalInterface
+    interface Balancer {
+
+        /**
+         * Selects one of the available endpoints.
+         *
+         * @param endpoints all endpoints
+         * @param now       current time in nanoseconds to check availability of endpoints with
+         * @return selected endpoint or null if none of endpoints is available
+         */
+        Endpoint select(Endpoint[] endpoints, long now);
+
+        static Balancer of(final String name) {
+            return switch (name) {
+                case "round_robin" -> new RoundRobin();
+                case "least_outstanding" -> new LeastLoaded((endpoint, now) -> endpoint.outstanding());
+                // Latency estimate is scaled by the queue that a new request would wait behind.
+                case "ewma" -> new LeastLoaded((endpoint, now) -> endpoint.latency(now) * (endpoint.outstanding() + 1));
+
+                default -> throw new IllegalArgumentException("unknown balancing option: " + name);
+            };
+        }
+    }
+
+    private static final class RoundRobin implements Balancer {
+        private final AtomicInteger next = new AtomicInteger(0);
+
+        @Override
+        public Endpoint select(final Endpoint[] endpoints, final long now) {
+            // Skipped endpoints consume their turn too, so the rest of endpoints are still used evenly.
+            for (int i = 0; i < endpoints.length; i++) {
+                final var endpoint = endpoints[Math.floorMod(next.getAndIncrement(), endpoints.length)];
+                if (endpoint.isAvailable(now)) return endpoint;
+            }
+
+            return null;
+        }
+    }
+
+    private static final class LeastLoaded implements Balancer {
+        private final Load load;
+
+        private LeastLoaded(final Load load) {
+            this.load = load;
+        }
+
+        @Override
+        public Endpoint select(final Endpoint[] endpoints, final long now) {
+            Endpoint selected = null;
+            var minimum = Double.MAX_VALUE;
+            var ties = 0;
+            for (final var endpoint : endpoints) {
+                if (!endpoint.isAvailable(now)) continue;
+
+                final var value = load.of(endpoint, now);
+                if (value < minimum) {
+                    minimum = value;
+                    selected = endpoint;
+                    ties = 1;
+                } else if (value == minimum && current().nextInt(++ties) == 0) {
+                    // Ties are broken randomly, so equally loaded endpoints are used evenly.
+                    selected = endpoint;
+                }
+            }
+
+            return selected;
+        }
+
+        @FunctionalInterface
+        private interface Load {
+            double of(Endpoint endpoint, long now);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.slf4j.Logger;
+import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.*;
+
+import java.io.Closeable;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.lang.foreign.Arena.ofConfined;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+import static software.openex.gate.binary.BinaryRepresentable.id;
+
+/**
+ * Micro-batching component that merges concurrently submitted non-atomic GL batches into a single upstream batch
+ * message and splits the failed transactions of the response back to the originating submissions by transaction id.
+ * If upstream rejects a merged batch with an error message, its submissions are sent again one by one, so an error is
+ * only returned to the submission that caused it.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class BatchCoalescer implements Closeable {
+    private static final Logger logger = getLogger(BatchCoalescer.class);
+
+    private final Upstream upstream;
+    private final long window;
+    private final int maxTransactions;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock;
+    private List<Pending> pending;
+    private HashSet<String> ids;
+    private int transactionsCount;
+    private ScheduledFuture<?> flush;
+
+    BatchCoalescer(final Upstream upstream, final long window, final int maxTransactions) {
+        this.upstream = upstream;
+        this.window = window;
+        this.maxTransactions = maxTransactions;
+        this.scheduler = newSingleThreadScheduledExecutor(Thread.ofPlatform().name("batch-coalescer").daemon().factory());
+        this.lock = new ReentrantLock();
+        this.pending = new ArrayList<>();
+        this.ids = new HashSet<>();
+    }
+
+    /**
+     * Adds transactions of a non-atomic batch into the current window.
+     *
+     * @param transactions already verified transactions of a batch
+     * @return future of binary representation of the failed transactions of this batch, or upstream error message
+     */
+    public Future<MemorySegment> submit(final List<Transaction> transactions) {
+        final var promise = Promise.<MemorySegment>promise();
+        var previous = List.<Pending>of();
+        var full = List.<Pending>of();
+
+        lock.lock();
+        try {
+            // Failed transactions are only identified by id, so duplicate ids can not share an upstream batch.
+            var conflicted = false;
+            for (final var transaction : transactions) {
+                if (ids.contains(transaction.getId())) {
+                    conflicted = true;
+                    break;
+                }
+            }
+
+            // Merged batches never exceed the maximum; only a single submission larger than it is sent as is.
+            if (conflicted || transactionsCount + transactions.size() > maxTransactions) {
+                previous = drain();
+            }
+
+            pending.add(new Pending(transactions, promise));
+            transactions.forEach(transaction -> ids.add(transaction.getId()));
+            transactionsCount += transactions.size();
+
+            if (transactionsCount >= maxTransactions) {
+                full = drain();
+            } else if (flush == null) {
+                flush = scheduler.schedule(this::flush, window, NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        send(previous);
+        send(full);
+
+        return promise.future();
+    }
+
+    private void flush() {
+        final List<Pending> ready;
+
+        lock.lock();
+        try {
+            ready = drain();
+        } finally {
+            lock.unlock();
+        }
+
+        send(ready);
+    }
+
+    private List<Pending> drain() {
+        if (flush != null) {
+            flush.cancel(false);
+            flush = null;
+        }
+
+        final var ready = pending;
+        pending = new ArrayList<>();
+        ids = new HashSet<>();
+        transactionsCount = 0;
+
+        return ready;
+    }
+
+    private void send(final List<Pending> batch) {
+        if (batch.isEmpty()) return;
+
+        try (final var arena = ofConfined()) {
+            final var transactions = new ArrayList<BinaryRepresentation<Transaction>>();
+            for (final var pending : batch) {
+                for (final var transaction : pending.transactions()) {
+                    final var transactionBinaryRepresentation = new TransactionBinaryRepresentation(arena, transaction);
+                    transactionBinaryRepresentation.encodeV1();
+                    transactions.add(transactionBinaryRepresentation);
+                }
+            }
+
+            final var message = new BatchBinaryRepresentation(arena, new Batch(transactions));
+            message.encodeV1();
+
+            upstream.sendAsync(message.segment()).onComplete(result -> {
+                if (result.succeeded()) {
+                    split(batch, result.result());
+                } else {
+                    batch.forEach(pending -> pending.promise().fail(result.cause()));
+                }
+            });
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.promise().fail(ex));
+        }
+    }
+
+    private void split(final List<Pending> batch, final MemorySegment response) {
+        if (id(response) == -1) {
+            if (batch.size() == 1) {
+                batch.getFirst().promise().complete(response);
+            } else {
+                // The submission that caused the error is not known, so every submission is retried on its own and
+                // only gets its own response.
+                batch.forEach(pending -> send(List.of(pending)));
+            }
+
+            return;
+        }
+
+        try {
+            final var owners = new HashMap<String, Integer>();
+            final var failed = new ArrayList<List<FailedTransaction>>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                final var owner = i;
+                batch.get(i).transactions().forEach(transaction -> owners.put(transaction.getId(), owner));
+                failed.add(new ArrayList<>());
+            }
+
+            for (final var item : FailedTransactionsBinaryRepresentation.items(response)) {
+                final var owner = owners.get(item.getId());
+                if (owner == null) {
+                    logger.warn("dropped failed transaction with unknown id: {}", item.getId());
+                } else {
+                    failed.get(owner).add(item);
+                }
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).promise().complete(encode(failed.get(i)));
+            }
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.promise().tryFail(ex));
+        }
+    }
+
+    /**
+     * Encodes failed transactions as a response of batch message.
+     *
+     * @param failed failed transactions
+     * @return binary representation of failed transactions
+     */
+    static MemorySegment encode(final List<FailedTransaction> failed) {
+        final var arena = ofAuto();
+        final var items = new ArrayList<BinaryRepresentation<FailedTransaction>>(failed.size());
+
+        for (final var failedTransaction : failed) {
+            final var item = new FailedTransactionBinaryRepresentation(arena, failedTransaction);
+            item.encodeV1();
+            items.add(item);
+        }
+
+        final var message = new FailedTransactionsBinaryRepresentation(arena, new FailedTransactions(items));
+        message.encodeV1();
+
+        return message.segment();
+    }
+
+    @Override
+    public void close() {
+        logger.info("Closing batch coalescer ...");
+
+        flush();
+        scheduler.shutdown();
+    }
+
+    private record Pending(List<Transaction> transactions, Promise<MemorySegment> promise) {
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.base.ErrorMessageBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.*;
+import software.openex.gate.exceptions.CircuitOpenException;
+import software.openex.gate.exceptions.ConnectionClosedException;
+
+import java.lang.foreign.MemorySegment;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.foreign.Arena.ofConfined;
+import static java.util.Collections.addAll;
+import static software.openex.gate.binary.BinaryRepresentable.id;
+import static software.openex.gate.context.BatchCoalescer.encode;
+import static software.openex.gate.handlers.Error.*;
+
+/**
+ * Splitter of non-atomic GL batches over ledger shards. Transactions are grouped by the shard of their ledger, groups
+ * are sent in parallel and failed transactions of all responses are merged into a single response. Other shards may
+ * have already applied their transactions, so if a shard responds with an error message or can not be reached, all
+ * transactions sent to it are reported as failed with the error code as reason instead of failing the whole batch.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class BatchSplitter {
+    private final ShardRouter router;
+
+    BatchSplitter(final ShardRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * Sends transactions of a non-atomic batch to their shards.
+     *
+     * @param batch transactions of batch
+     * @return future of merged failed transactions, or the error message if all transactions belong to a single shard
+     */
+    public Future<MemorySegment> submit(final List<Transaction> batch) {
+        final var shards = new LinkedHashMap<Upstream, List<Transaction>>();
+        for (final var transaction : batch) {
+            shards.computeIfAbsent(router.route(Integer.toString(transaction.getLedger())), shard -> new ArrayList<>())
+                    .add(transaction);
+        }
+
+        if (shards.isEmpty()) {
+            return Future.succeededFuture(encode(List.of()));
+        }
+
+        final var groups = new ArrayList<List<Transaction>>(shards.size());
+        final var responses = new ArrayList<Future<MemorySegment>>(shards.size());
+        shards.forEach((upstream, transactions) -> {
+            groups.add(transactions);
+            responses.add(send(upstream, transactions));
+        });
+
+        if (responses.size() == 1) {
+            return responses.getFirst();
+        }
+
+        // Waits for all shards, even if some of them fail.
+        return Future.join(responses).transform(result -> Future.succeededFuture(merge(groups, responses)));
+    }
+
+    private static Future<MemorySegment> send(final Upstream upstream, final List<Transaction> transactions) {
+        try (final var arena = ofConfined()) {
+            final var items = new ArrayList<BinaryRepresentation<Transaction>>(transactions.size());
+            for (final var transaction : transactions) {
+                final var item = new TransactionBinaryRepresentation(arena, transaction);
+                item.encodeV1();
+                items.add(item);
+            }
+
+            final var message = new BatchBinaryRepresentation(arena, new Batch(items));
+            message.encodeV1();
+
+            return upstream.sendAsync(message.segment());
+        } catch (RuntimeException ex) {
+            return Future.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Merges completed responses of shards into a single failed transactions response.
+     *
+     * @param groups    transactions sent to each shard
+     * @param responses completed responses of shards in the same order
+     * @return binary representation of failed transactions
+     */
+    static MemorySegment merge(final List<List<Transaction>> groups, final List<Future<MemorySegment>> responses) {
+        final var failed = new ArrayList<FailedTransaction>();
+        for (int i = 0; i < responses.size(); i++) {
+            final var response = responses.get(i);
+            if (response.succeeded() && id(response.result()) != -1) {
+                addAll(failed, FailedTransactionsBinaryRepresentation.items(response.result()));
+                continue;
+            }
+
+            final var reason = response.succeeded() ?
+                    ErrorMessageBinaryRepresentation.decode(response.result()).getCode() :
+                    reason(response.cause());
+
+            for (final var transaction : groups.get(i)) {
+                failed.add(new FailedTransaction(transaction.getId(), reason));
+            }
+        }
+
+        return encode(failed);
+    }
+
+    private static String reason(final Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            return GL_CONNECT_TIMEOUT.getCode();
+        } else if (cause instanceof SocketTimeoutException) {
+            // Shard may still have applied the transactions; they have to be inquired.
+            return GL_REQUEST_TIMEOUT.getCode();
+        } else if (cause instanceof ConnectionClosedException || cause instanceof SocketException ||
+                cause instanceof CircuitOpenException) {
+
+            return GL_NOT_REACHABLE.getCode();
+        }
+
+        return SERVER_ERROR.getCode();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.Future;
+import org.slf4j.Logger;
+import software.openex.gate.exceptions.CircuitOpenException;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.System.nanoTime;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Circuit breaker around an upstream. Failure and slow call rates are measured over fixed windows; when either rate
+ * reaches its threshold the circuit opens and messages fail immediately. After a while a limited number of probe
+ * messages are let through, and the circuit closes if all of them succeed or opens again on the first failure.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class CircuitBreaker implements Upstream {
+    private static final Logger logger = getLogger(CircuitBreaker.class);
+
+    private final Upstream upstream;
+    private final String name;
+    private final long window;
+    private final int minimumRequests;
+    private final double failureRateThreshold;
+    private final long slowCallDuration;
+    private final double slowCallRateThreshold;
+    private final long openDuration;
+    private final int halfOpenProbes;
+    private final Counter rejected;
+
+    private State state;
+    private long windowStart;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probes;
+    private int succeededProbes;
+
+    CircuitBreaker(final Upstream upstream, final String name, final String endpoint, final long window,
+                   final int minimumRequests, final double failureRateThreshold, final long slowCallDuration,
+                   final double slowCallRateThreshold, final long openDuration, final int halfOpenProbes) {
+
+        this.upstream = upstream;
+        this.name = name + " " + endpoint;
+        this.window = window;
+        this.minimumRequests = minimumRequests;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+        this.state = State.CLOSED;
+        this.windowStart = nanoTime();
+
+        final var registry = Meters.registry();
+        final var tags = Tags.of("upstream", name, "endpoint", endpoint);
+        this.rejected = registry.counter("gate.circuit_breaker.rejected", tags);
+        Gauge.builder("gate.circuit_breaker.state", this, breaker -> breaker.state().ordinal())
+                .tags(tags).strongReference(true).register(registry);
+    }
+
+    @Override
+    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
+        acquire();
+        final var start = nanoTime();
+
+        try {
+            final var response = upstream.send(arena, message);
+            record(true, nanoTime() - start);
+            return response;
+        } catch (Exception ex) {
+            record(false, nanoTime() - start);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Future<MemorySegment> sendAsync(final MemorySegment message) {
+        try {
+            acquire();
+        } catch (CircuitOpenException ex) {
+            return Future.failedFuture(ex);
+        }
+
+        final var start = nanoTime();
+        return upstream.sendAsync(message).onComplete(result -> record(result.succeeded(), nanoTime() - start));
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return upstream.isNonBlocking();
+    }
+
+    private synchronized State state() {
+        return state;
+    }
+
+    private synchronized void acquire() {
+        final var now = nanoTime();
+        if (state == State.OPEN && now - openedAt >= openDuration) {
+            transition(State.HALF_OPEN, now);
+        }
+
+        if (state == State.OPEN || (state == State.HALF_OPEN && probes >= halfOpenProbes)) {
+            rejected.increment();
+            throw new CircuitOpenException();
+        }
+
+        if (state == State.HALF_OPEN) probes++;
+    }
+
+    private synchronized void record(final boolean succeeded, final long duration) {
+        final var now = nanoTime();
+        final var slow = duration >= slowCallDuration;
+
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!succeeded || slow) {
+                    transition(State.OPEN, now);
+                } else if (++succeededProbes >= halfOpenProbes) {
+                    transition(State.CLOSED, now);
+                }
+            }
+            case CLOSED -> {
+                if (now - windowStart >= window) {
+                    reset(now);
+                }
+
+                calls++;
+                if (!succeeded) failures++;
+                if (slow) slowCalls++;
+
+                if (calls >= minimumRequests &&
+                        (failures >= failureRateThreshold * calls || slowCalls >= slowCallRateThreshold * calls)) {
+                    transition(State.OPEN, now);
+                }
+            }
+            // Responses of messages sent before opening are ignored.
+            case OPEN -> {
+            }
+        }
+    }
+
+    private void transition(final State to, final long now) {
+        if (to == State.OPEN) {
+            logger.warn("circuit breaker of {} is {}", name, to);
+        } else {
+            logger.info("circuit breaker of {} is {}", name, to);
+        }
+
+        state = to;
+        openedAt = now;
+        probes = 0;
+        succeededProbes = 0;
+        reset(now);
+    }
+
+    private void reset(final long now) {
+        windowStart = now;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        upstream.close();
+    }
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Adaptive limiter of concurrent requests of an upstream using additive increase, multiplicative decrease. The limit
+ * grows by one for every limit number of fast responses while it is being used, and shrinks by backoff ratio on every
+ * slow or dropped response, so it settles around the concurrency that upstream serves within latency threshold.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class ConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThreshold;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight;
+    private final Counter rejected;
+    private double limit;
+
+    ConcurrencyLimiter(final String name, final int initialLimit, final int minLimit, final int maxLimit,
+                       final long latencyThreshold, final double backoffRatio) {
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+        this.inFlight = new AtomicInteger(0);
+        this.limit = initialLimit;
+
+        final var registry = Meters.registry();
+        final var tags = Tags.of("upstream", name);
+        this.rejected = registry.counter("gate.concurrency_limiter.rejected", tags);
+        Gauge.builder("gate.concurrency_limiter.limit", this, ConcurrencyLimiter::limit)
+                .tags(tags).strongReference(true).register(registry);
+        Gauge.builder("gate.concurrency_limiter.in_flight", inFlight, AtomicInteger::get)
+                .tags(tags).strongReference(true).register(registry);
+    }
+
+    /**
+     * Acquires a permit if number of in flight requests is less than current limit.
+     *
+     * @return true if request can proceed; must be followed by {@link #release(long, boolean)}
+     */
+    public boolean tryAcquire() {
+        final var current = (int) limit();
+
+        int value;
+        do {
+            value = inFlight.get();
+            if (value >= current) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(value, value + 1));
+
+        return true;
+    }
+
+    /**
+     * Releases a permit and adjusts limit by the outcome of request.
+     *
+     * @param latency request latency in nanoseconds
+     * @param dropped whether request failed because of upstream being unavailable or timed out
+     */
+    public void release(final long latency, final boolean dropped) {
+        final var value = inFlight.getAndDecrement();
+
+        synchronized (this) {
+            if (dropped || latency > latencyThreshold) {
+                limit = max(minLimit, limit * backoffRatio);
+            } else if (value * 2 >= limit) {
+                // Limit only grows while at least half of it is used.
+                limit = min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    private synchronized double limit() {
+        return limit;
+    }
+}
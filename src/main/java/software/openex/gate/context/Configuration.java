@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import java.time.Duration;
 import java.util.List;
 
+import static com.typesafe.config.ConfigFactory.invalidateCaches;
 import static com.typesafe.config.ConfigFactory.load;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -47,6 +48,16 @@ public final class Configuration {
         this.config = load();
     }
 
+    /**
+     * Loads configuration again from the same sources; used for options that can be changed without restart.
+     *
+     * @return newly loaded configuration
+     */
+    public Configuration reload() {
+        invalidateCaches();
+        return new Configuration();
+    }
+
     public boolean loadBoolean(final String key) {
         final var value = config.getBoolean(key);
         logger.trace("{}: {}", key, value);
@@ -0,0 +1,174 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import software.openex.gate.exceptions.ConnectionClosedException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import static java.lang.Boolean.TRUE;
+import static java.lang.System.nanoTime;
+import static java.lang.foreign.MemorySegment.copy;
+import static java.net.StandardSocketOptions.SO_KEEPALIVE;
+import static java.net.StandardSocketOptions.SO_REUSEADDR;
+import static java.net.StandardSocketOptions.TCP_NODELAY;
+import static java.nio.ByteBuffer.allocateDirect;
+import static java.nio.channels.SelectionKey.OP_READ;
+import static java.nio.channels.SelectionKey.OP_WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static software.openex.gate.binary.BinaryRepresentable.RHS;
+import static software.openex.gate.binary.BinaryRepresentable.size;
+
+/**
+ * Single TCP connection that writes and reads binary representations directly from/into memory segments. The channel
+ * is used in non-blocking mode together with a private selector, so request timeout can be applied to every read and
+ * write.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class Connection implements Closeable {
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final ByteBuffer header;
+    private final MemorySegment headerSegment;
+    private final int requestTimeout;
+    private long idleSince;
+
+    Connection(final InetSocketAddress address, final int connectTimeout, final int requestTimeout) throws IOException {
+        this.channel = SocketChannel.open();
+        this.requestTimeout = requestTimeout;
+
+        try {
+            channel.setOption(SO_REUSEADDR, TRUE);
+            channel.setOption(SO_KEEPALIVE, TRUE);
+            // Every request is written at once and waited for, so it must not be delayed to be coalesced.
+            channel.setOption(TCP_NODELAY, TRUE);
+            channel.socket().connect(address, connectTimeout);
+            channel.configureBlocking(false);
+
+            this.selector = Selector.open();
+            this.key = channel.register(selector, OP_READ);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+
+        this.header = allocateDirect(RHS);
+        this.headerSegment = MemorySegment.ofBuffer(header);
+        this.idleSince = nanoTime();
+    }
+
+    /**
+     * Writes the message and reads its response; response header and body are read into a single allocation.
+     *
+     * @param arena   arena to allocate response in
+     * @param message message to be written as is
+     * @return response including its header
+     * @throws IOException if connection is broken or request times out
+     */
+    MemorySegment exchange(final Arena arena, final MemorySegment message) throws IOException {
+        final var deadline = nanoTime() + MILLISECONDS.toNanos(requestTimeout);
+
+        final var request = message.asByteBuffer();
+        while (request.hasRemaining()) {
+            if (channel.write(request) == 0) await(OP_WRITE, deadline);
+        }
+
+        read(header.clear(), deadline);
+        final var bodySize = size(headerSegment);
+        final var response = arena.allocate(RHS + bodySize);
+        copy(headerSegment, 0, response, 0, RHS);
+        read(response.asSlice(RHS).asByteBuffer(), deadline);
+
+        return response;
+    }
+
+    /**
+     * Marks connection as idle; it is called whenever connection is given back to its pool.
+     */
+    void markIdle() {
+        idleSince = nanoTime();
+    }
+
+    long idleSince() {
+        return idleSince;
+    }
+
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    /**
+     * Checks an idle connection without blocking; an idle connection that is readable is either closed by the other
+     * side or has received bytes that belong to no request, so it can not be used anymore.
+     *
+     * @return true if connection can be used
+     * @throws IOException if selector is closed
+     */
+    boolean isHealthy() throws IOException {
+        if (!channel.isOpen()) return false;
+
+        key.interestOps(OP_READ);
+        if (selector.selectNow() == 0) return true;
+
+        selector.selectedKeys().clear();
+        return false;
+    }
+
+    private void read(final ByteBuffer buffer, final long deadline) throws IOException {
+        while (buffer.hasRemaining()) {
+            final var read = channel.read(buffer);
+            if (read == -1) throw new ConnectionClosedException();
+            if (read == 0) await(OP_READ, deadline);
+        }
+    }
+
+    private void await(final int ops, final long deadline) throws IOException {
+        key.interestOps(ops);
+
+        while (true) {
+            final var remaining = NANOSECONDS.toMillis(deadline - nanoTime());
+            if (remaining <= 0) throw new SocketTimeoutException();
+
+            if (selector.select(remaining) > 0) {
+                selector.selectedKeys().clear();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            selector.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -17,116 +17,271 @@
  */
 package software.openex.gate.context;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
 import software.openex.gate.exceptions.ConnectionClosedException;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.SocketException;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.lang.Boolean.TRUE;
-import static java.lang.foreign.MemorySegment.copy;
-import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
-import static software.openex.gate.binary.BinaryRepresentable.*;
 
 /**
- * TCP connections pool.
+ * Elastic TCP connections pool. The pool keeps at least the minimum number of connections and grows up to the maximum
+ * number when a request would otherwise wait; connections above the minimum are closed after being idle for a while.
+ * Idle connections are handed out most recently used first, so the excess ones stay idle and can be evicted. Checkout
+ * is lock-free unless there is no idle connection and the caller has to wait.
+ * <p>
+ * Broken connections are removed from the pool and the minimum is restored by a background maintenance thread with
+ * exponential backoff, which also probes idle connections periodically; requests never reconnect inline.
  *
  * @author Alireza Pourtaghi
  */
-public final class ConnectionPool implements Closeable {
+public final class ConnectionPool implements Upstream {
     private static final Logger logger = getLogger(ConnectionPool.class);
 
     private final InetSocketAddress address;
     private final int connectTimeout;
     private final int requestTimeout;
-    private final ArrayBlockingQueue<Socket> connections;
+    private final int minConnectionsCount;
+    private final int maxConnectionsCount;
+    private final long idleTimeout;
+    private final long reconnectBackoffMin;
+    private final long reconnectBackoffMax;
+    private final IdleStack<Connection> connections;
+    private final AtomicInteger total;
+    private final AtomicBoolean reconnecting;
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean reachable;
+    private volatile boolean closed;
 
-    ConnectionPool(final String host, final int port, final int connectTimeout, final int requestTimeout,
-                   final int connectionsCount) {
+    ConnectionPool(final String name, final String host, final int port, final int connectTimeout,
+                   final int requestTimeout, final int minConnectionsCount, final int maxConnectionsCount,
+                   final long idleTimeout, final long healthCheckInterval, final long reconnectBackoffMin,
+                   final long reconnectBackoffMax) {
 
         this.address = new InetSocketAddress(host, port);
         this.connectTimeout = connectTimeout;
         this.requestTimeout = requestTimeout;
-        this.connections = new ArrayBlockingQueue<>(connectionsCount);
+        this.minConnectionsCount = min(minConnectionsCount, maxConnectionsCount);
+        this.maxConnectionsCount = maxConnectionsCount;
+        this.idleTimeout = MILLISECONDS.toNanos(idleTimeout);
+        this.reconnectBackoffMin = reconnectBackoffMin;
+        this.reconnectBackoffMax = reconnectBackoffMax;
+        this.connections = new IdleStack<>();
+        this.total = new AtomicInteger(0);
+        this.reconnecting = new AtomicBoolean(true);
+        this.maintenance = newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, name + "-connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reachable = true;
+        this.closed = false;
 
-        for (int i = 1; i <= connectionsCount; i++) {
-            try {
-                connections.offer(newConnection());
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
+        registerMetrics(name);
+
+        // Warms up the pool; if server is not available yet, connecting is retried in background.
+        reconnect(reconnectBackoffMin);
+        maintenance.scheduleWithFixedDelay(this::probe, healthCheckInterval, healthCheckInterval, MILLISECONDS);
+    }
+
+    @Override
+    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
+        final var connection = checkout();
+
+        // Whatever may have remained in the stream after any failure belongs to this request, so the connection is
+        // only reused if exchange completes.
+        var broken = true;
+        try {
+            final var response = connection.exchange(arena, message);
+            broken = false;
+
+            return response;
+        } catch (IOException | ConnectionClosedException ex) {
+            if (ex instanceof SocketTimeoutException || ex instanceof SocketException || ex instanceof ConnectionClosedException) {
+                throw ex;
+            }
+
+            throw (SocketException) new SocketException(ex.getMessage()).initCause(ex);
+        } finally {
+            if (broken) {
+                discard(connection);
+            } else {
+                connection.markIdle();
+                connections.push(connection);
             }
         }
     }
 
-    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
-        var connection = connections.poll(connectTimeout, MILLISECONDS);
-        if (connection == null) {
-            throw new TimeoutException();
+    private Connection checkout() throws Exception {
+        final var deadline = nanoTime() + MILLISECONDS.toNanos(connectTimeout);
+
+        while (true) {
+            var connection = connections.pop();
+            if (connection == null) {
+                // No need to wait for a connection that is not going to be established soon.
+                if (!reachable) {
+                    throw new ConnectException(address + " is not reachable");
+                }
+
+                connection = grow();
+            }
+
+            if (connection == null) {
+                connection = connections.pop(deadline - nanoTime(), NANOSECONDS);
+            }
+
+            if (connection == null) {
+                throw new TimeoutException();
+            }
+
+            if (connection.isOpen()) {
+                return connection;
+            }
+
+            discard(connection);
         }
+    }
+
+    private Connection grow() {
+        int current;
+        do {
+            current = total.get();
+            if (current >= maxConnectionsCount) return null;
+        } while (!total.compareAndSet(current, current + 1));
 
         try {
-            if (!connection.isConnected()) {
-                connection.close();
-                connection = newConnection();
+            return newConnection();
+        } catch (IOException ex) {
+            // Request waits for a pooled connection instead.
+            logger.warn("could not connect to {}: {}", address, ex.getMessage());
+            total.decrementAndGet();
+            return null;
+        }
+    }
+
+    private void discard(final Connection connection) {
+        close(connection);
+        total.decrementAndGet();
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (!closed && total.get() < minConnectionsCount && reconnecting.compareAndSet(false, true)) {
+            maintenance.execute(() -> reconnect(reconnectBackoffMin));
+        }
+    }
+
+    private void reconnect(final long backoff) {
+        while (!closed && total.incrementAndGet() <= minConnectionsCount) {
+            try {
+                connections.pushLast(newConnection());
+                reachable = true;
+            } catch (IOException ex) {
+                total.decrementAndGet();
+                logger.warn("could not connect to {}: {}; retrying in {} ms", address, ex.getMessage(), backoff);
+                reachable = false;
+                maintenance.schedule(() -> reconnect(min(backoff * 2, reconnectBackoffMax)), backoff, MILLISECONDS);
+                return;
+            }
+        }
+
+        total.decrementAndGet();
+        reconnecting.set(false);
+        // A connection may have been discarded right before the flag was cleared.
+        scheduleReconnect();
+    }
+
+    private void probe() {
+        final var now = nanoTime();
+        // Connections are taken out of pool one at a time, so the rest stay available to requests meanwhile. They are
+        // visited most recently used first and put back at the bottom, which keeps their order.
+        for (final var connection : connections.snapshot()) {
+            if (!connections.remove(connection)) {
+                // In use; checked by the next probe.
+                continue;
             }
 
-            final var outputStream = connection.getOutputStream();
-            final var inputStream = connection.getInputStream();
+            if (now - connection.idleSince() > idleTimeout && evictable()) {
+                close(connection);
+                continue;
+            }
 
-            outputStream.write(message.toArray(JAVA_BYTE));
-            outputStream.flush();
+            try {
+                if (connection.isHealthy()) {
+                    connections.pushLast(connection);
+                    continue;
+                }
+            } catch (IOException ex) {
+                logger.error("{}", ex.getMessage());
+            }
 
-            final var headerBytes = inputStream.readNBytes(RHS);
-            if (headerBytes.length == 0) throw new ConnectionClosedException();
-            final var header = arena.allocate(RHS);
-            copy(headerBytes, 0, header, BYTE, 0, RHS);
+            logger.warn("discarding broken connection to {}", address);
+            discard(connection);
+        }
+    }
 
-            final var bodySize = size(header);
-            final var bodyBytes = inputStream.readNBytes(bodySize);
-            if (bodyBytes.length == 0) throw new ConnectionClosedException();
-            final var body = arena.allocate(bodySize);
-            copy(bodyBytes, 0, body, BYTE, 0, bodySize);
+    private boolean evictable() {
+        int current;
+        do {
+            current = total.get();
+            if (current <= minConnectionsCount) return false;
+        } while (!total.compareAndSet(current, current - 1));
 
-            final var response = arena.allocate(header.byteSize() + body.byteSize());
-            copy(header, 0, response, 0, header.byteSize());
-            copy(body, 0, response, header.byteSize(), body.byteSize());
+        return true;
+    }
 
-            return response;
-        } catch (SocketException ex) {
-            connection.close();
-            connection = newConnection();
+    private Connection newConnection() throws IOException {
+        return new Connection(address, connectTimeout, requestTimeout);
+    }
 
-            throw ex;
-        } finally {
-            connections.offer(connection);
+    private void close(final Connection connection) {
+        try {
+            connection.close();
+        } catch (IOException ex) {
+            logger.error("{}", ex.getMessage());
         }
     }
 
-    private Socket newConnection() throws Exception {
-        // TODO: Check available options.
-        final var socket = new Socket();
-        socket.setReuseAddress(TRUE);
-        socket.setKeepAlive(TRUE);
-        socket.setSoTimeout(requestTimeout);
-        socket.connect(address, connectTimeout);
+    private void registerMetrics(final String name) {
+        final var registry = Meters.registry();
+        final var tags = Tags.of("upstream", name, "endpoint", address.getHostString() + ":" + address.getPort());
 
-        return socket;
+        Gauge.builder("gate.connection_pool.connections", total, AtomicInteger::get)
+                .tags(tags).tag("state", "current").strongReference(true).register(registry);
+        Gauge.builder("gate.connection_pool.connections", connections, IdleStack::size)
+                .tags(tags).tag("state", "idle").strongReference(true).register(registry);
+        Gauge.builder("gate.connection_pool.connections", this, pool -> pool.total.get() - pool.connections.size())
+                .tags(tags).tag("state", "active").strongReference(true).register(registry);
     }
 
     @Override
     public void close() throws IOException {
         logger.info("Closing TCP connections pool ...");
 
-        for (final var connection : connections) {
+        closed = true;
+        maintenance.shutdownNow();
+
+        final var idle = new ArrayList<Connection>(connections.size());
+        connections.drainTo(idle);
+        for (final var connection : idle) {
             connection.close();
         }
     }
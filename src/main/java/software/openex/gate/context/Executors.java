@@ -17,20 +17,32 @@
  */
 package software.openex.gate.context;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import org.slf4j.Logger;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static java.time.Duration.ofSeconds;
-import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * Executors list.
+ * Executors list. Worker executor is unbounded by default; it is only bounded when executors.worker.queue_capacity
+ * (platform threads) or executors.worker.max_concurrency (virtual threads) is set, and then tasks above it are rejected
+ * with {@link RejectedExecutionException} instead of piling up while upstream servers are slow.
  *
  * @author Alireza Pourtaghi
  */
@@ -40,10 +52,32 @@ public final class Executors implements Closeable {
     private final ExecutorService workerExecutor;
 
     Executors(final Configuration configuration) {
-        this.workerExecutor =
-                configuration.loadBoolean("executors.worker.virtual_threads_enabled") ?
-                        newVirtualThreadPerTaskExecutor() :
-                        newFixedThreadPool(configuration.loadInt("executors.worker.threads"));
+        final var registry = Meters.registry();
+        final var rejected = registry.counter("gate.executors.rejected", "executor", "worker");
+
+        if (configuration.loadBoolean("executors.worker.virtual_threads_enabled")) {
+            final var executor = new CappedExecutorService(newVirtualThreadPerTaskExecutor(),
+                    configuration.loadInt("executors.worker.max_concurrency"), rejected);
+
+            Gauge.builder("gate.executors.active", executor, CappedExecutorService::active)
+                    .tag("executor", "worker").strongReference(true).register(registry);
+            this.workerExecutor = executor;
+        } else {
+            final var threads = configuration.loadInt("executors.worker.threads");
+            final var capacity = configuration.loadInt("executors.worker.queue_capacity");
+            final var executor = new ThreadPoolExecutor(threads, threads, 0, MILLISECONDS,
+                    capacity > 0 ? new ArrayBlockingQueue<>(capacity) : new LinkedBlockingQueue<>(),
+                    (runnable, pool) -> {
+                        rejected.increment();
+                        throw new RejectedExecutionException("worker queue is full");
+                    });
+
+            Gauge.builder("gate.executors.queued", executor, pool -> pool.getQueue().size())
+                    .tag("executor", "worker").strongReference(true).register(registry);
+            Gauge.builder("gate.executors.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("executor", "worker").strongReference(true).register(registry);
+            this.workerExecutor = executor;
+        }
     }
 
     public ExecutorService worker() {
@@ -65,4 +99,78 @@ public final class Executors implements Closeable {
             logger.error("{}", ex.getMessage());
         }
     }
+
+    /**
+     * Executor that runs at most max concurrency number of tasks at once on its delegate; zero means no limit.
+     */
+    private static final class CappedExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final int maxConcurrency;
+        private final Semaphore permits;
+        private final Counter rejected;
+
+        private CappedExecutorService(final ExecutorService delegate, final int maxConcurrency,
+                                      final Counter rejected) {
+
+            this.delegate = delegate;
+            this.maxConcurrency = maxConcurrency;
+            this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (permits == null) {
+                delegate.execute(command);
+                return;
+            }
+
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                throw new RejectedExecutionException("worker concurrency limit reached");
+            }
+
+            try {
+                delegate.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        private int active() {
+            return permits == null ? 0 : maxConcurrency - permits.availablePermits();
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
 }
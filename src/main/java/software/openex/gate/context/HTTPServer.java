@@ -21,6 +21,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.ext.healthchecks.HealthCheckHandler;
+import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.*;
 import org.slf4j.Logger;
@@ -92,13 +93,45 @@ public final class HTTPServer implements Closeable {
         final var jsonBodyResponderHandler = new JsonBodyResponderHandler();
         final var noContentResponderHandler = new NoContentResponderHandler();
 
-        router.post("/v1/gl/messages").handler(bodyHandler).handler(new GLSubmitMessageHandler()).handler(jsonBodyResponderHandler);
-        router.post("/v1/oms/messages").handler(bodyHandler).handler(new OMSSubmitMessageHandler()).handler(jsonBodyResponderHandler);
+        final var binaryBodyResponderHandler = new BinaryBodyResponderHandler();
+        final var rateLimiterHandler = context().rateLimiter() != null ?
+                new RateLimiterHandler(context().rateLimiter(),
+                        context().config().loadBoolean("http.server.rate_limit.per_message")) : null;
+        // Message id of binary messages is in their body, which is not read yet when requests are rate limited.
+        final var binaryRateLimiterHandler = context().rateLimiter() != null ?
+                new RateLimiterHandler(context().rateLimiter(), false) : null;
+
+        admit(router.post("/v1/gl/messages"), rateLimiterHandler, context().glConcurrencyLimiter())
+                .handler(bodyHandler).handler(new GLSubmitMessageHandler()).handler(jsonBodyResponderHandler);
+        admit(router.post("/v1/oms/messages"), rateLimiterHandler, context().omsConcurrencyLimiter())
+                .handler(bodyHandler).handler(new OMSSubmitMessageHandler()).handler(jsonBodyResponderHandler);
+
+        // Pre-encoded binary messages are sent to upstream servers as is.
+        admit(router.post("/v1/gl/binary").consumes("application/octet-stream"), binaryRateLimiterHandler,
+                context().glConcurrencyLimiter())
+                .handler(bodyHandler).handler(new GLBinaryMessageHandler()).handler(binaryBodyResponderHandler);
+        admit(router.post("/v1/oms/binary").consumes("application/octet-stream"), binaryRateLimiterHandler,
+                context().omsConcurrencyLimiter())
+                .handler(bodyHandler).handler(new OMSBinaryMessageHandler()).handler(binaryBodyResponderHandler);
 
         router.get("/v1/ready").handler(new LiveNessHandler());
         router.get("/health*").handler(healthChecksHandler());
     }
 
+    private static Route admit(final Route route, final RateLimiterHandler rateLimiterHandler,
+                               final ConcurrencyLimiter concurrencyLimiter) {
+
+        if (rateLimiterHandler != null) {
+            route.handler(rateLimiterHandler);
+        }
+
+        if (concurrencyLimiter != null) {
+            route.handler(new ConcurrencyLimiterHandler(concurrencyLimiter));
+        }
+
+        return route;
+    }
+
     private void setupBaseHandlers() {
         router.route().handler(new RealIPDetectorHandler());
         router.route().handler(ResponseTimeHandler.create());
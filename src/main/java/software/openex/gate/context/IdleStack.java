@@ -0,0 +1,104 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock-free last in, first out stack of idle objects with timed waiting. Every pushed object is followed by a permit,
+ * so a taken permit always has an object to pop; uncontended push and pop are only compare and set operations and a
+ * caller parks only when there is no idle object at all.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class IdleStack<T> {
+    private final ConcurrentLinkedDeque<T> items;
+    private final Semaphore available;
+
+    IdleStack() {
+        this.items = new ConcurrentLinkedDeque<>();
+        this.available = new Semaphore(0);
+    }
+
+    void push(final T item) {
+        items.offerFirst(item);
+        available.release();
+    }
+
+    /**
+     * Pushes an object to the bottom of stack, so it is handed out after all current idle objects.
+     *
+     * @param item idle object
+     */
+    void pushLast(final T item) {
+        items.offerLast(item);
+        available.release();
+    }
+
+    T pop() {
+        return available.tryAcquire() ? items.pollFirst() : null;
+    }
+
+    T pop(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return available.tryAcquire(timeout, unit) ? items.pollFirst() : null;
+    }
+
+    /**
+     * Takes a specific object out of stack if it is still idle.
+     *
+     * @param item idle object
+     * @return true if object was idle and is now taken by caller
+     */
+    boolean remove(final T item) {
+        if (!available.tryAcquire()) return false;
+        if (items.removeFirstOccurrence(item)) return true;
+
+        // Object was taken by another caller holding its own permit.
+        available.release();
+        return false;
+    }
+
+    /**
+     * Returns current idle objects, most recently pushed first; objects may be taken by other callers meanwhile.
+     *
+     * @return list of idle objects
+     */
+    List<T> snapshot() {
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * Moves all current idle objects into collection, most recently pushed first.
+     *
+     * @param collection destination collection
+     */
+    void drainTo(final Collection<T> collection) {
+        for (int i = available.drainPermits(); i > 0; i--) {
+            collection.add(items.pollFirst());
+        }
+    }
+
+    int size() {
+        return available.availablePermits();
+    }
+}
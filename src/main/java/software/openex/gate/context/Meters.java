@@ -0,0 +1,44 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static io.micrometer.core.instrument.Metrics.globalRegistry;
+import static io.vertx.micrometer.backends.BackendRegistries.getDefaultNow;
+
+/**
+ * Access point of components to the metrics registry.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class Meters {
+
+    private Meters() {
+    }
+
+    /**
+     * Returns the registry of vertx metrics, or a registry that records nothing if metrics are disabled.
+     *
+     * @return meter registry
+     */
+    static MeterRegistry registry() {
+        final var registry = getDefaultNow();
+        return registry != null ? registry : globalRegistry;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.slf4j.Logger;
+import software.openex.gate.exceptions.ConnectionClosedException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.Boolean.TRUE;
+import static java.lang.foreign.MemorySegment.copy;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+import static software.openex.gate.binary.BinaryRepresentable.*;
+
+/**
+ * Single TCP connection that carries many in-flight requests at the same time. Each request is tagged with a
+ * correlation id and responses are matched back to waiting callers by a dedicated reader.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class MultiplexedConnection implements Closeable {
+    private static final Logger logger = getLogger(MultiplexedConnection.class);
+
+    private final InetSocketAddress address;
+    private final int connectTimeout;
+    private final int requestTimeout;
+    private final ReentrantLock writeLock;
+    private volatile Session session;
+
+    MultiplexedConnection(final InetSocketAddress address, final int connectTimeout, final int requestTimeout) {
+        this.address = address;
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.writeLock = new ReentrantLock();
+    }
+
+    void open() throws IOException {
+        writeLock.lock();
+        try {
+            connect();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    MemorySegment send(final MemorySegment message, final long correlationId) throws Exception {
+        final var future = new CompletableFuture<MemorySegment>();
+        final var session = write(message, correlationId, future);
+
+        try {
+            return future.get(requestTimeout, MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new SocketTimeoutException();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) throw cause;
+            throw ex;
+        } finally {
+            session.pending().remove(correlationId);
+        }
+    }
+
+    private Session write(final MemorySegment message, final long correlationId,
+                          final CompletableFuture<MemorySegment> future) throws Exception {
+
+        if (!writeLock.tryLock(connectTimeout, MILLISECONDS)) {
+            throw new TimeoutException();
+        }
+
+        try {
+            var session = this.session;
+            if (session == null || session.socket().isClosed()) {
+                session = connect();
+            }
+
+            final var messageSize = message.byteSize();
+            final var bytes = new byte[(int) messageSize + CTS];
+            final var frame = ofArray(bytes);
+            copy(message, 0, frame, 0, messageSize);
+            frame.set(BYTE, 1, (byte) (flags(message) | CID));
+            frame.set(LONG, messageSize, correlationId);
+
+            session.pending().put(correlationId, future);
+            try {
+                final var outputStream = session.socket().getOutputStream();
+                outputStream.write(bytes);
+                outputStream.flush();
+            } catch (SocketException ex) {
+                session.pending().remove(correlationId);
+                session.socket().close();
+                throw ex;
+            }
+
+            return session;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Session connect() throws IOException {
+        final var socket = new Socket();
+        socket.setReuseAddress(TRUE);
+        socket.setKeepAlive(TRUE);
+        // Requests are small and latency sensitive, so they must not be delayed to be coalesced.
+        socket.setTcpNoDelay(TRUE);
+        socket.connect(address, connectTimeout);
+
+        final var session = new Session(socket, new ConcurrentHashMap<>());
+        Thread.ofVirtual().name("multiplexed-reader-" + address).start(() -> read(session));
+        this.session = session;
+
+        return session;
+    }
+
+    private void read(final Session session) {
+        try {
+            final var inputStream = session.socket().getInputStream();
+
+            while (!session.socket().isClosed()) {
+                final var headerBytes = inputStream.readNBytes(RHS);
+                if (headerBytes.length < RHS) throw new ConnectionClosedException();
+                final var header = ofArray(headerBytes);
+
+                final var bodySize = size(header);
+                final var correlated = isCorrelated(header);
+                final var remainingBytes = inputStream.readNBytes(correlated ? bodySize + CTS : bodySize);
+                if (remainingBytes.length < (correlated ? bodySize + CTS : bodySize)) throw new ConnectionClosedException();
+                final var remaining = ofArray(remainingBytes);
+
+                if (!correlated) {
+                    logger.warn("dropped response without correlation id from {}", address);
+                    continue;
+                }
+
+                final var future = session.pending().remove(remaining.get(LONG, bodySize));
+                if (future == null) {
+                    // Caller has already timed out.
+                    continue;
+                }
+
+                final var response = ofArray(new byte[RHS + bodySize]);
+                copy(header, 0, response, 0, RHS);
+                copy(remaining, 0, response, RHS, bodySize);
+                response.set(BYTE, 1, (byte) (flags(header) & ~CID));
+
+                future.complete(response);
+            }
+        } catch (Exception ex) {
+            if (!session.socket().isClosed()) {
+                logger.error("multiplexed connection to {} failed: {}", address, ex.getMessage());
+            }
+        } finally {
+            close(session);
+        }
+    }
+
+    private void close(final Session session) {
+        try {
+            session.socket().close();
+        } catch (IOException ex) {
+            logger.error("{}", ex.getMessage());
+        }
+
+        session.pending().values().forEach(future -> future.completeExceptionally(new ConnectionClosedException()));
+        session.pending().clear();
+    }
+
+    @Override
+    public void close() {
+        final var session = this.session;
+        if (session != null) close(session);
+    }
+
+    private record Session(Socket socket, ConcurrentHashMap<Long, CompletableFuture<MemorySegment>> pending) {
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.floorMod;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * TCP connections pool in which every connection is shared by many in-flight requests. Requests and responses are
+ * matched by correlation ids, so the upstream server must echo back the correlation id trailer of each request.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class MultiplexedConnectionPool implements Upstream {
+    private static final Logger logger = getLogger(MultiplexedConnectionPool.class);
+
+    private final MultiplexedConnection[] connections;
+    private final AtomicInteger next;
+    private final AtomicLong correlationIds;
+
+    MultiplexedConnectionPool(final String host, final int port, final int connectTimeout, final int requestTimeout,
+                              final int connectionsCount) {
+
+        final var address = new InetSocketAddress(host, port);
+        this.connections = new MultiplexedConnection[connectionsCount];
+        this.next = new AtomicInteger();
+        this.correlationIds = new AtomicLong();
+
+        for (int i = 0; i < connectionsCount; i++) {
+            connections[i] = new MultiplexedConnection(address, connectTimeout, requestTimeout);
+
+            try {
+                connections[i].open();
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    @Override
+    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
+        final var connection = connections[floorMod(next.getAndIncrement(), connections.length)];
+        return connection.send(message, correlationIds.incrementAndGet());
+    }
+
+    @Override
+    public void close() throws IOException {
+        logger.info("Closing multiplexed TCP connections pool ...");
+
+        for (final var connection : connections) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import software.openex.gate.binary.oms.order.book.FetchOrderBook;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.lang.System.nanoTime;
+import static software.openex.gate.binary.BinaryRepresentable.id;
+
+/**
+ * Short-lived cache of order book responses per symbol. Concurrent misses of a symbol share a single upstream request
+ * and a cached (or in-flight) order book of larger depth also serves requests of smaller depth.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class OrderBookCache {
+    private final long ttl;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ConcurrentHashMap<String, Flight> flights;
+
+    OrderBookCache(final long ttl, final int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the cached order book or loads it using the loader. The returned order book may contain more records
+     * than requested on each side.
+     *
+     * @param fetchOrderBook requested symbol and depth
+     * @param loader         upstream request to be sent on miss
+     * @return future of binary representation of order book or upstream error message
+     */
+    public Future<MemorySegment> fetch(final FetchOrderBook fetchOrderBook, final Supplier<Future<MemorySegment>> loader) {
+        final var symbol = fetchOrderBook.getSymbol();
+        final var fetchSize = fetchOrderBook.getFetchSize();
+
+        final var entry = entries.get(symbol);
+        if (entry != null && entry.fetchSize() >= fetchSize && nanoTime() < entry.expiresAt()) {
+            return Future.succeededFuture(entry.response());
+        }
+
+        final var promise = Promise.<MemorySegment>promise();
+        final var flight = flights.compute(symbol, (key, current) ->
+                current != null && current.fetchSize() >= fetchSize ? current : new Flight(fetchSize, promise.future()));
+
+        if (flight.response() != promise.future()) {
+            return flight.response();
+        }
+
+        try {
+            loader.get().onComplete(result -> {
+                if (result.succeeded() && id(result.result()) != -1) {
+                    put(symbol, new Entry(fetchSize, result.result(), nanoTime() + ttl));
+                }
+
+                flights.remove(symbol, flight);
+                promise.handle(result);
+            });
+        } catch (RuntimeException ex) {
+            flights.remove(symbol, flight);
+            promise.fail(ex);
+        }
+
+        return promise.future();
+    }
+
+    private void put(final String symbol, final Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(symbol)) {
+            final var now = nanoTime();
+            entries.values().removeIf(existing -> now >= existing.expiresAt());
+
+            // Symbols are provided by clients, so the cache stays bounded instead of growing with garbage symbols.
+            if (entries.size() >= maxEntries) return;
+        }
+
+        entries.put(symbol, entry);
+    }
+
+    private record Entry(int fetchSize, MemorySegment response, long expiresAt) {
+    }
+
+    private record Flight(int fetchSize, Future<MemorySegment> response) {
+    }
+}
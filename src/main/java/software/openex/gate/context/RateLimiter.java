@@ -0,0 +1,100 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+
+/**
+ * Per client rate limiter with a token bucket for every key. Buckets are lock-free; each one keeps only the time at
+ * which it becomes full again, which is pushed forward by one token interval per request and may be ahead of now by at
+ * most the burst size. Buckets that have been full for idle timeout are removed, and when there are still too many of
+ * them new keys share one overflow bucket, so the memory is bounded even when clients forge their addresses.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class RateLimiter {
+    private final long interval;
+    private final long tolerance;
+    private final long idleTimeout;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, AtomicLong> buckets;
+    private final AtomicLong overflow;
+    private final AtomicLong lastSweep;
+    private final Counter rejected;
+
+    RateLimiter(final double rate, final int burst, final long idleTimeout, final int maxEntries) {
+        this.interval = (long) (1_000_000_000 / rate);
+        this.tolerance = interval * (burst - 1);
+        this.idleTimeout = idleTimeout;
+        this.maxEntries = maxEntries;
+        this.buckets = new ConcurrentHashMap<>();
+
+        // Times are only comparable to other nanoTime values, whose origin is arbitrary and may be negative.
+        final var now = nanoTime();
+        this.overflow = new AtomicLong(now);
+        this.lastSweep = new AtomicLong(now);
+
+        final var registry = Meters.registry();
+        this.rejected = registry.counter("gate.rate_limiter.rejected");
+        Gauge.builder("gate.rate_limiter.buckets", buckets, ConcurrentHashMap::size)
+                .strongReference(true).register(registry);
+    }
+
+    /**
+     * Takes a token from the bucket of key if there is one.
+     *
+     * @param key client key
+     * @return true if request of client can proceed
+     */
+    public boolean tryAcquire(final String key) {
+        final var now = nanoTime();
+        sweep(now);
+
+        var bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxEntries ? buckets.computeIfAbsent(key, k -> new AtomicLong(now)) : overflow;
+        }
+
+        long full;
+        long next;
+        do {
+            full = bucket.get();
+            next = max(full, now) + interval;
+            if (next - now > tolerance + interval) {
+                rejected.increment();
+                return false;
+            }
+        } while (!bucket.compareAndSet(full, next));
+
+        return true;
+    }
+
+    private void sweep(final long now) {
+        final var last = lastSweep.get();
+        if (now - last > idleTimeout && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(bucket -> now - bucket.get() > idleTimeout);
+        }
+    }
+}
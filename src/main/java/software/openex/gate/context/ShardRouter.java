@@ -0,0 +1,148 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Router of messages to shards of a server by a routing key, such as symbol or ledger. Keys listed in the routing table
+ * go to their shard and the rest are distributed over shards by consistent hashing. The table is reloaded from
+ * configuration periodically, while the set of shards is fixed at startup.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class ShardRouter implements Closeable {
+    private static final Logger logger = getLogger(ShardRouter.class);
+    private static final int VIRTUAL_NODES = 128;
+
+    private final String name;
+    private final String tableOption;
+    private final Map<String, Upstream> shards;
+    private final TreeMap<Long, Upstream> ring;
+    private final ScheduledExecutorService reloader;
+    private volatile Map<String, Upstream> table;
+
+    ShardRouter(final Configuration configuration, final String name, final String tableOption,
+                final Map<String, Upstream> shards) {
+
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException(name + ".routing.shards option has no shard");
+        }
+
+        this.name = name;
+        this.tableOption = tableOption;
+        this.shards = shards;
+        this.ring = new TreeMap<>();
+        for (final var shard : shards.entrySet()) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(shard.getKey() + "#" + i), shard.getValue());
+            }
+        }
+
+        this.table = table(configuration);
+        this.reloader = newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, name + "-routing-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final var interval = configuration.loadDuration(name + ".routing.reload_interval").toMillis();
+        reloader.scheduleWithFixedDelay(() -> reload(configuration), interval, interval, MILLISECONDS);
+    }
+
+    /**
+     * Returns the shard that is responsible for the routing key.
+     *
+     * @param routingKey routing key of message
+     * @return upstream of shard
+     */
+    public Upstream route(final String routingKey) {
+        final var key = routingKey == null ? "" : routingKey;
+
+        final var upstream = table.get(key);
+        if (upstream != null) {
+            return upstream;
+        }
+
+        final var entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private void reload(final Configuration configuration) {
+        try {
+            table = table(configuration.reload());
+        } catch (RuntimeException ex) {
+            // Previous table stays in use until configuration is fixed.
+            logger.error("could not reload {} routing table: {}", name, ex.getMessage());
+        }
+    }
+
+    private Map<String, Upstream> table(final Configuration configuration) {
+        final var keys = configuration.loadObject(name + ".routing." + tableOption);
+
+        final var table = new HashMap<String, Upstream>(keys.size());
+        for (final var key : keys.entrySet()) {
+            final var shard = String.valueOf(key.getValue().unwrapped());
+            final var upstream = shards.get(shard);
+            if (upstream == null) {
+                throw new IllegalArgumentException("unknown shard " + shard + " for " + key.getKey());
+            }
+
+            table.put(key.getKey(), upstream);
+        }
+
+        return table;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of characters followed by a final mix, so close symbols spread over the ring.
+     */
+    private static long hash(final String value) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reloader.shutdownNow();
+        for (final var upstream : shards.values()) {
+            upstream.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Reusable buffer of the canonical signed content; comma separated fields encoded in UTF-8.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class SignatureContent {
+    private final byte[] digits;
+    private byte[] bytes;
+    private int length;
+    private boolean comma;
+
+    SignatureContent() {
+        this.digits = new byte[20];
+        this.bytes = new byte[128];
+        this.length = 0;
+        this.comma = false;
+    }
+
+    /**
+     * Appends a number field.
+     *
+     * @param value number value
+     * @return current instance
+     */
+    public SignatureContent field(final long value) {
+        separate();
+
+        var remaining = value;
+        var index = digits.length;
+        do {
+            digits[--index] = (byte) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+
+        ensureCapacity(digits.length - index + 1);
+        if (value < 0) bytes[length++] = '-';
+        System.arraycopy(digits, index, bytes, length, digits.length - index);
+        length += digits.length - index;
+        return this;
+    }
+
+    /**
+     * Appends a string field; null values are written as null the same as string formatting does.
+     *
+     * @param value string value
+     * @return current instance
+     */
+    public SignatureContent field(final String value) {
+        separate();
+
+        final var string = value == null ? "null" : value;
+        ensureCapacity(string.length() * 3);
+        for (int i = 0; i < string.length(); i++) {
+            final var c = string.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | c >> 6);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < string.length() &&
+                    Character.isLowSurrogate(string.charAt(i + 1))) {
+
+                final var codePoint = Character.toCodePoint(c, string.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Malformed input is replaced the same as String.getBytes does.
+                bytes[length++] = '?';
+            } else {
+                bytes[length++] = (byte) (0xE0 | c >> 12);
+                bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        return this;
+    }
+
+    void raw(final byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, bytes, length, value.length);
+        length += value.length;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void reset() {
+        length = 0;
+        comma = false;
+    }
+
+    private void separate() {
+        if (comma) {
+            ensureCapacity(1);
+            bytes[length++] = ',';
+        }
+
+        comma = true;
+    }
+
+    private void ensureCapacity(final int size) {
+        if (length + size > bytes.length) {
+            bytes = copyOf(bytes, max(bytes.length * 2, length + size));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, UTF_8);
+    }
+}
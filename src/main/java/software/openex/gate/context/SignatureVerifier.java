@@ -17,19 +17,31 @@
  */
 package software.openex.gate.context;
 
+import io.micrometer.core.instrument.Counter;
 import org.bouncycastle.jcajce.provider.BouncyCastleFipsProvider;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.security.PEMDecoder;
 import java.security.Provider;
 import java.security.PublicKey;
+import java.security.Signature;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.readString;
 import static java.nio.file.Path.of;
+import static java.lang.Math.min;
 import static java.security.Signature.getInstance;
 import static java.util.Base64.getDecoder;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -39,13 +51,43 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public final class SignatureVerifier {
     private static final Logger logger = getLogger(SignatureVerifier.class);
+    private static final String ALGORITHM = "SHA3-512withRSA";
 
     private final Provider provider;
     private final PublicKey publicKey;
+    private final long poolWaitTimeout;
+    private final int parallelism;
+    private final VerifiedSignatures verifiedSignatures;
+    private final ArrayBlockingQueue<Verifier> verifiers;
+    private final Counter hits;
+    private final Counter waits;
+    private final Counter misses;
 
     SignatureVerifier(final Configuration configuration) {
         this.provider = new BouncyCastleFipsProvider();
         this.publicKey = decodePublicKey(configuration.loadString("signature.public_key_path"));
+        this.poolWaitTimeout = configuration.loadDuration("signature.verifiers_pool_wait_timeout").toNanos();
+        this.parallelism = configuration.loadInt("signature.verification_parallelism");
+        this.verifiedSignatures = configuration.loadBoolean("signature.verified_cache.enabled") ?
+                new VerifiedSignatures(
+                        configuration.loadDuration("signature.verified_cache.ttl").toNanos(),
+                        configuration.loadInt("signature.verified_cache.max_entries")) :
+                null;
+
+        final var poolSize = configuration.loadInt("signature.verifiers_pool_size");
+        this.verifiers = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 1; i <= poolSize; i++) {
+            try {
+                verifiers.offer(new Verifier(newSignature()));
+            } catch (GeneralSecurityException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        final var registry = Meters.registry();
+        this.hits = registry.counter("gate.signature.verifiers.pool.hits");
+        this.waits = registry.counter("gate.signature.verifiers.pool.waits");
+        this.misses = registry.counter("gate.signature.verifiers.pool.misses");
     }
 
     public boolean verify(final String content, final String signature) {
@@ -53,19 +95,164 @@ public final class SignatureVerifier {
     }
 
     public boolean verify(final byte[] contentBytes, final byte[] signatureBytes) {
+        return verify(content -> content.raw(contentBytes), signatureBytes, false);
+    }
+
+    /**
+     * Verifies the canonical content written by writer directly into a reusable buffer.
+     *
+     * @param writer    canonical content writer
+     * @param signature base64 encoded signature
+     * @return true if signature is verified
+     */
+    public boolean verify(final Consumer<SignatureContent> writer, final String signature) {
+        return verify(writer, signature.getBytes(ISO_8859_1), false);
+    }
+
+    /**
+     * Verifies the canonical content the same as {@link #verify(Consumer, String)} but remembers successful
+     * verifications for a short time if enabled. Must only be used for idempotent read requests.
+     *
+     * @param writer    canonical content writer
+     * @param signature base64 encoded signature
+     * @return true if signature is verified or has recently been verified
+     */
+    public boolean verifyCached(final Consumer<SignatureContent> writer, final String signature) {
+        return verify(writer, signature.getBytes(ISO_8859_1), verifiedSignatures != null);
+    }
+
+    private boolean verify(final Consumer<SignatureContent> writer, final byte[] signatureBytes,
+                           final boolean cacheable) {
+
+        Verifier verifier = null;
         try {
-            // TODO: Improve performance by using objects pool.
-            final var signature = getInstance("SHA3-512withRSA", provider);
-            signature.initVerify(publicKey);
-            signature.update(contentBytes);
+            verifier = checkout();
+            if (verifier == null) {
+                // Pool is exhausted; an unpooled verifier is used rather than failing the request.
+                return verify(new Verifier(newSignature()), writer, signatureBytes, cacheable);
+            }
 
-            return signature.verify(getDecoder().decode(signatureBytes));
+            return verify(verifier, writer, signatureBytes, cacheable);
         } catch (Exception ex) {
-            logger.error("could not verify content: {} with signature: {}", new String(contentBytes), new String(signatureBytes));
+            final var content = verifier != null ? verifier.content : null;
+            logger.error("could not verify content: {} with signature: {}", content, new String(signatureBytes));
+            // A verifier that can not be reset nor replaced is not put back into the pool.
+            final var failed = verifier;
+            verifier = null;
+            verifier = reset(failed);
+            return false;
+        } finally {
+            if (verifier != null) verifiers.offer(verifier);
+        }
+    }
+
+    /**
+     * Verifies all contents with their signatures concurrently and stops as soon as one of them is not verified.
+     *
+     * @param contents   list of contents
+     * @param signatures list of signatures of contents in the same order
+     * @return true if all signatures are verified
+     */
+    public boolean verifyAll(final List<Consumer<SignatureContent>> contents, final List<String> signatures) {
+        final var size = contents.size();
+        final var workers = min(size, parallelism);
+        if (workers <= 1) {
+            for (int i = 0; i < size; i++) {
+                if (!verify(contents.get(i), signatures.get(i))) return false;
+            }
+
+            return true;
+        }
+
+        final var next = new AtomicInteger();
+        final var verified = new AtomicInteger();
+        final var failed = new AtomicBoolean();
+        final var done = new CountDownLatch(1);
+        for (int i = 1; i <= workers; i++) {
+            Thread.ofVirtual().start(() -> {
+                int index;
+                while (!failed.get() && (index = next.getAndIncrement()) < size) {
+                    if (!verify(contents.get(index), signatures.get(index))) {
+                        failed.set(true);
+                        done.countDown();
+                    } else if (verified.incrementAndGet() == size) {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+
+        try {
+            done.await();
+            return !failed.get();
+        } catch (InterruptedException ex) {
+            failed.set(true);
+            Thread.currentThread().interrupt();
             return false;
         }
     }
 
+    private boolean verify(final Verifier verifier, final Consumer<SignatureContent> writer,
+                           final byte[] signatureBytes, final boolean cacheable) throws GeneralSecurityException {
+
+        verifier.write(writer);
+        if (!cacheable) {
+            return verifier.verify(signatureBytes);
+        }
+
+        if (verifiedSignatures.contains(verifier.content, signatureBytes)) {
+            return true;
+        }
+
+        final var verified = verifier.verify(signatureBytes);
+        if (verified) verifiedSignatures.add(verifier.content, signatureBytes);
+        return verified;
+    }
+
+    private Verifier checkout() throws InterruptedException {
+        var verifier = verifiers.poll();
+        if (verifier != null) {
+            hits.increment();
+            return verifier;
+        }
+
+        waits.increment();
+        verifier = verifiers.poll(poolWaitTimeout, NANOSECONDS);
+        if (verifier == null) {
+            misses.increment();
+        }
+
+        return verifier;
+    }
+
+    private Verifier reset(final Verifier verifier) {
+        if (verifier == null) {
+            return null;
+        }
+
+        try {
+            // State of a signature object is not specified after a failed verification.
+            verifier.signature.initVerify(publicKey);
+            return verifier;
+        } catch (GeneralSecurityException ex) {
+            logger.error("{}", ex.getMessage());
+        }
+
+        // A fresh verifier takes the place of the broken one, so failures never shrink the pool.
+        try {
+            return new Verifier(newSignature());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("could not replace pooled signature verifier", ex);
+        }
+    }
+
+    private Signature newSignature() throws GeneralSecurityException {
+        final var signature = getInstance(ALGORITHM, provider);
+        signature.initVerify(publicKey);
+
+        return signature;
+    }
+
     private PublicKey decodePublicKey(final String publicKeyPath) {
         try {
             return PEMDecoder.of().decode(readString(of(publicKeyPath)), PublicKey.class);
@@ -73,4 +260,38 @@ public final class SignatureVerifier {
             throw new RuntimeException(ex);
         }
     }
+
+    /**
+     * Initialized signature object with its own content and decoding buffers; it is used by one thread at a time.
+     */
+    private static final class Verifier {
+        private final Signature signature;
+        private final SignatureContent content;
+        private byte[] buffer;
+
+        private Verifier(final Signature signature) {
+            this.signature = signature;
+            this.content = new SignatureContent();
+            this.buffer = new byte[0];
+        }
+
+        private void write(final Consumer<SignatureContent> writer) {
+            content.reset();
+            writer.accept(content);
+        }
+
+        private boolean verify(final byte[] signatureBytes) throws GeneralSecurityException {
+            // Decoded length is at most three quarters of the encoded length.
+            final var capacity = signatureBytes.length / 4 * 3 + 3;
+            if (buffer.length < capacity) {
+                buffer = new byte[capacity];
+            }
+
+            final var length = getDecoder().decode(signatureBytes, buffer);
+            signature.update(content.bytes(), 0, content.length());
+
+            // Successful or not, verification resets the signature object to its initialized state.
+            return signature.verify(buffer, 0, length);
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.io.Closeable;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+/**
+ * Upstream (GL/OMS) server abstraction that binary messages can be sent to.
+ *
+ * @author Alireza Pourtaghi
+ */
+public interface Upstream extends Closeable {
+
+    /**
+     * Sends a binary message to upstream server and waits for its response.
+     *
+     * @param arena   arena that response may be allocated in
+     * @param message encoded binary representation to be sent
+     * @return binary representation of the response including its header
+     * @throws Exception if sending message or receiving response fails
+     */
+    MemorySegment send(Arena arena, MemorySegment message) throws Exception;
+
+    /**
+     * Sends a binary message to upstream server without waiting for its response. The message is copied before
+     * returning, so its arena can be closed right after the call. Blocking implementations send the message from a
+     * separate virtual thread.
+     *
+     * @param message encoded binary representation to be sent
+     * @return future of binary representation of the response including its header
+     */
+    default Future<MemorySegment> sendAsync(final MemorySegment message) {
+        final var request = ofArray(message.toArray(JAVA_BYTE));
+        final var promise = Promise.<MemorySegment>promise();
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                promise.complete(send(ofAuto(), request));
+            } catch (Exception ex) {
+                promise.fail(ex);
+            }
+        });
+
+        return promise.future();
+    }
+
+    /**
+     * Whether {@link #sendAsync(MemorySegment)} waits for responses without occupying any thread or not.
+     *
+     * @return true if upstream is non-blocking
+     */
+    default boolean isNonBlocking() {
+        return false;
+    }
+}
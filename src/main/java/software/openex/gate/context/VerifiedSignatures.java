@@ -0,0 +1,138 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Bounded cache of successfully verified contents and signatures that expire after a ttl. Lookups take no lock and
+ * copy nothing; when the cache is full, the entry that expires first among a few sampled ones is evicted, which
+ * approximates evicting the oldest one. Entries keep the exact content and signature, so a hash collision can never be
+ * taken as a verified signature.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class VerifiedSignatures {
+    private static final int EVICTION_SAMPLES = 8;
+    // Base64 encoded signatures look random, so a prefix of them hashes as well as all of their hundreds of bytes.
+    private static final int HASHED_SIGNATURE_BYTES = 16;
+
+    private final long ttl;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Key, Long> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    VerifiedSignatures(final long ttl, final int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+
+        final var registry = Meters.registry();
+        this.hits = registry.counter("gate.signature.verified_cache.hits");
+        this.misses = registry.counter("gate.signature.verified_cache.misses");
+    }
+
+    boolean contains(final SignatureContent content, final byte[] signatureBytes) {
+        final var key = new Key(content.bytes(), content.length(), signatureBytes);
+        final var expiresAt = entries.get(key);
+        if (expiresAt != null && nanoTime() - expiresAt < 0) {
+            hits.increment();
+            return true;
+        }
+
+        if (expiresAt != null) entries.remove(key, expiresAt);
+
+        misses.increment();
+        return false;
+    }
+
+    void add(final SignatureContent content, final byte[] signatureBytes) {
+        final var now = nanoTime();
+        if (entries.size() >= maxEntries) evict(now);
+
+        final var key = new Key(copyOf(content.bytes(), content.length()), content.length(), signatureBytes);
+        entries.put(key, now + ttl);
+    }
+
+    private void evict(final long now) {
+        Key eldest = null;
+        long eldestExpiresAt = 0;
+
+        var sampled = 0;
+        for (final var entry : entries.entrySet()) {
+            final long expiresAt = entry.getValue();
+            if (now - expiresAt >= 0) {
+                entries.remove(entry.getKey(), expiresAt);
+            } else if (eldest == null || expiresAt - eldestExpiresAt < 0) {
+                eldest = entry.getKey();
+                eldestExpiresAt = expiresAt;
+            }
+
+            if (++sampled == EVICTION_SAMPLES) break;
+        }
+
+        if (eldest != null) entries.remove(eldest, eldestExpiresAt);
+    }
+
+    /**
+     * Content and signature of a verification; content may be a prefix of a larger reusable buffer for lookups.
+     */
+    private static final class Key {
+        private final byte[] content;
+        private final int length;
+        private final byte[] signature;
+        private final int hash;
+
+        private Key(final byte[] content, final int length, final byte[] signature) {
+            this.content = content;
+            this.length = length;
+            this.signature = signature;
+
+            var hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + content[i];
+            }
+
+            for (int i = 0; i < min(signature.length, HASHED_SIGNATURE_BYTES); i++) {
+                hash = 31 * hash + signature[i];
+            }
+
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key key && hash == key.hash &&
+                    Arrays.equals(content, 0, length, key.content, 0, key.length) &&
+                    Arrays.equals(signature, key.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
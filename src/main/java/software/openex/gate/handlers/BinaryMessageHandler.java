@@ -0,0 +1,191 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+import software.openex.gate.context.Upstream;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static software.openex.gate.binary.BinaryRepresentable.*;
+import static software.openex.gate.context.AppContext.context;
+import static software.openex.gate.handlers.Error.*;
+
+/**
+ * Base handler of binary messages that are already encoded by clients. Messages are validated by their header and only
+ * the fields needed for routing are read from their bodies; they are sent to upstream server as is and the raw
+ * response of upstream, including its header, is put as response body.
+ *
+ * @author Alireza Pourtaghi
+ */
+abstract class BinaryMessageHandler extends HTTPHandler {
+    private final Set<Integer> ids;
+    private final boolean nonBlocking;
+
+    BinaryMessageHandler(final String name, final Set<Integer> ids) {
+        this.ids = ids;
+        this.nonBlocking = "async".equals(context().config().loadString(name + ".transport"));
+    }
+
+    @Override
+    public void handle(final RoutingContext routingContext) {
+        try {
+            final var body = routingContext.body().buffer();
+            final var message = body == null ? null : ofArray(body.getBytes());
+            if (message == null || !isValid(message, ids)) {
+                REQUEST_BODY_NOT_VALID.send(routingContext);
+                return;
+            }
+
+            if (nonBlocking && !isSigned()) {
+                submit(routingContext, message);
+            } else {
+                context().executors().worker().submit(() -> {
+                    try {
+                        if (!verify(routingContext, message)) {
+                            SIGNATURE_VERIFICATION_FAILED.send(routingContext);
+                            return;
+                        }
+
+                        submit(routingContext, message);
+                    } catch (RuntimeException ex) {
+                        logger.error("{}", ex.getMessage());
+                        SERVER_ERROR.send(routingContext);
+                    }
+                });
+            }
+        } catch (RejectedExecutionException ex) {
+            // Not logged; rejections are counted by worker executor and would flood the log under load.
+            SERVER_BUSY.send(routingContext);
+        } catch (RuntimeException ex) {
+            logger.error("{}", ex.getMessage());
+            SERVER_ERROR.send(routingContext);
+        }
+    }
+
+    /**
+     * Sends message to the upstream it belongs to.
+     *
+     * @param routingContext routing context of request
+     * @param message        raw message with a valid header
+     * @return future of upstream response, or null if request has already been responded with an error
+     */
+    protected abstract Future<MemorySegment> route(RoutingContext routingContext, MemorySegment message);
+
+    /**
+     * Whether messages must be signed or not; if so, signatures are verified on worker executor.
+     */
+    protected boolean isSigned() {
+        return false;
+    }
+
+    /**
+     * Verifies signature of raw message.
+     *
+     * @param routingContext routing context of request
+     * @param message        raw message
+     * @return true if message is verified
+     */
+    protected boolean verify(final RoutingContext routingContext, final MemorySegment message) {
+        return true;
+    }
+
+    /**
+     * Responds to request with an error by the cause of failure to exchange message with upstream.
+     *
+     * @param routingContext routing context of request
+     * @param cause          failure cause
+     */
+    protected abstract void failed(RoutingContext routingContext, Throwable cause);
+
+    /**
+     * Sends message to upstream; blocking upstreams are only called from worker executor.
+     */
+    protected static Future<MemorySegment> send(final Upstream upstream, final MemorySegment message) {
+        if (upstream.isNonBlocking()) {
+            return upstream.sendAsync(message);
+        }
+
+        try {
+            return Future.succeededFuture(upstream.send(ofAuto(), message));
+        } catch (Exception ex) {
+            return Future.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Reads an int field of message body.
+     *
+     * @return value of field or null if message is too short
+     */
+    protected static Integer readInt(final MemorySegment message, final long offset) {
+        return offset + INT.byteSize() <= message.byteSize() ? message.get(INT, offset) : null;
+    }
+
+    /**
+     * Reads a null terminated string field of message body.
+     *
+     * @return value of field or null if field does not fit in message
+     */
+    protected static String readString(final MemorySegment message, final long offset) {
+        final var length = readInt(message, offset);
+        final var start = offset + INT.byteSize();
+        if (length == null || length < 1 || start + length > message.byteSize()) {
+            return null;
+        }
+
+        return new String(message.asSlice(start, length - 1).toArray(JAVA_BYTE), UTF_8);
+    }
+
+    /**
+     * Validates header of message; only version 1 messages with one of handled ids and a size that matches their body
+     * are accepted.
+     */
+    static boolean isValid(final MemorySegment message, final Set<Integer> ids) {
+        // Correlation ids are only set by multiplexed connections pools.
+        return message.byteSize() >= RHS &&
+                version(message) == VR1 &&
+                (flags(message) & CID) == 0 &&
+                ids.contains(id(message)) &&
+                size(message) == message.byteSize() - RHS;
+    }
+
+    private void submit(final RoutingContext routingContext, final MemorySegment message) {
+        final var response = route(routingContext, message);
+        if (response == null) {
+            return;
+        }
+
+        onCallerContext(response).onComplete(result -> {
+            if (result.succeeded()) {
+                routingContext.put(RESPONSE_BODY, Buffer.buffer(result.result().toArray(JAVA_BYTE)));
+                routingContext.next();
+            } else {
+                failed(routingContext, result.cause());
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import io.vertx.ext.web.RoutingContext;
+import software.openex.gate.context.ConcurrencyLimiter;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static java.lang.System.nanoTime;
+import static software.openex.gate.handlers.Error.TOO_MANY_REQUESTS;
+
+/**
+ * Concurrency limiter handler implementation that sheds requests of an upstream above its adaptive limit.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class ConcurrencyLimiterHandler extends HTTPHandler {
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimiterHandler(final ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void handle(final RoutingContext routingContext) {
+        if (!limiter.tryAcquire()) {
+            TOO_MANY_REQUESTS.send(routingContext);
+            return;
+        }
+
+        final var start = nanoTime();
+        routingContext.addEndHandler(result -> {
+            final var status = routingContext.response().getStatusCode();
+            final var dropped = result.failed() ||
+                    status == SERVICE_UNAVAILABLE.code() || status == GATEWAY_TIMEOUT.code();
+
+            limiter.release(nanoTime() - start, dropped);
+        });
+
+        routingContext.next();
+    }
+}
@@ -18,10 +18,13 @@
 package software.openex.gate.handlers;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
-import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 
+import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
+import static software.openex.gate.handlers.HTTPHandler.APPLICATION_JSON;
+
 /**
  * Different error types list.
  *
@@ -31,6 +34,7 @@ public enum Error {
     // Validation
     ID_NOT_VALID("id.not_valid", "", HttpResponseStatus.BAD_REQUEST.code()),
     SIGNATURE_VERIFICATION_FAILED("signature_verification.failed", "", HttpResponseStatus.BAD_REQUEST.code()),
+    LEDGERS_NOT_IN_SAME_SHARD("ledgers.not_in_same_shard", "Atomic batch ledgers are not in the same GL shard", HttpResponseStatus.BAD_REQUEST.code()),
 
     // GL
     GL_CONNECT_TIMEOUT("gl.connect_timeout", "GL server connect timeout", HttpResponseStatus.SERVICE_UNAVAILABLE.code()),
@@ -48,17 +52,21 @@ public enum Error {
     PARAMETER_NOT_VALID("parameter.not_valid", "", HttpResponseStatus.BAD_REQUEST.code()),
     RESOURCE_NOT_FOUND("resource.not_found", "", HttpResponseStatus.NOT_FOUND.code()),
     TOO_MANY_REQUESTS("too_many_requests", "", HttpResponseStatus.TOO_MANY_REQUESTS.code()),
+    SERVER_BUSY("server.busy", "Server is busy; try again later", HttpResponseStatus.SERVICE_UNAVAILABLE.code()),
     FORBIDDEN("forbidden", "", HttpResponseStatus.FORBIDDEN.code()),
     SERVER_ERROR("server.error", "", HttpResponseStatus.INTERNAL_SERVER_ERROR.code());
 
     private final String code;
     private final String message;
     private final int httpStatusCode;
+    private final Buffer body;
 
     Error(final String code, final String message, final int httpStatusCode) {
         this.code = code;
         this.message = message;
         this.httpStatusCode = httpStatusCode;
+        // Rendered once; responses only read the buffer, so it is shared between all of them.
+        this.body = toJson().toBuffer();
     }
 
     public String getCode() {
@@ -80,9 +88,9 @@ public enum Error {
      */
     public void send(final RoutingContext routingContext) {
         routingContext.response()
-                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .putHeader(CONTENT_TYPE, APPLICATION_JSON)
                 .setStatusCode(getHttpStatusCode())
-                .end(toJson().toBuffer());
+                .end(body);
     }
 
     /**
@@ -0,0 +1,76 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+import software.openex.gate.binary.base.ErrorMessage;
+import software.openex.gate.binary.base.ErrorMessageBinaryRepresentation;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.PRECONDITION_FAILED;
+import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
+import static io.vertx.core.json.JsonObject.mapFrom;
+import static software.openex.gate.handlers.HTTPHandler.APPLICATION_JSON;
+
+/**
+ * Responder of upstream error messages that keeps rendered JSON responses of distinct error messages.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class ErrorMessageResponses {
+    private static final int MAX_ENTRIES = 1024;
+    private static final ConcurrentHashMap<Key, Buffer> responses = new ConcurrentHashMap<>();
+
+    private ErrorMessageResponses() {
+    }
+
+    /**
+     * Sends binary representation of an error message as an HTTP response.
+     *
+     * @param routingContext vertx context instance
+     * @param segment        binary representation of error message
+     */
+    static void send(final RoutingContext routingContext, final MemorySegment segment) {
+        routingContext.response()
+                .putHeader(CONTENT_TYPE, APPLICATION_JSON)
+                .setStatusCode(PRECONDITION_FAILED.code())
+                .end(render(ErrorMessageBinaryRepresentation.decode(segment)));
+    }
+
+    private static Buffer render(final ErrorMessage errorMessage) {
+        final var key = new Key(errorMessage.getCode(), errorMessage.getMessage());
+        final var response = responses.get(key);
+        if (response != null) {
+            return response;
+        }
+
+        // Messages may carry request specific details, so only a bounded number of them are kept.
+        final var rendered = mapFrom(errorMessage).toBuffer();
+        if (responses.size() < MAX_ENTRIES) {
+            responses.putIfAbsent(key, rendered);
+        }
+
+        return rendered;
+    }
+
+    private record Key(String code, String message) {
+    }
+}
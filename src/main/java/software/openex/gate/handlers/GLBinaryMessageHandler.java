@@ -0,0 +1,183 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.RoutingContext;
+import software.openex.gate.binary.gl.transaction.BatchBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.Transaction;
+import software.openex.gate.exceptions.CircuitOpenException;
+import software.openex.gate.exceptions.ConnectionClosedException;
+
+import java.lang.foreign.MemorySegment;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Arrays.asList;
+import static software.openex.gate.binary.BinaryRepresentable.*;
+import static software.openex.gate.context.AppContext.context;
+import static software.openex.gate.handlers.Error.*;
+
+/**
+ * Handler of binary GL messages. If GL routing is enabled, messages are routed by their ledgers the same as JSON
+ * messages: non-atomic batches of more than one shard are split and atomic batches must belong to a single shard. If
+ * signature verification is enabled, the raw message must be signed and its base64 encoded signature must be set in
+ * signature header.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class GLBinaryMessageHandler extends BinaryMessageHandler {
+    private static final String SIGNATURE = "Signature";
+
+    public GLBinaryMessageHandler() {
+        super("gl", Set.of(103, 104, 202, 203, 206));
+    }
+
+    @Override
+    protected Future<MemorySegment> route(final RoutingContext routingContext, final MemorySegment message) {
+        final var id = id(message);
+        if (id == 202 || id == 203) {
+            return routeBatch(routingContext, message, id == 203);
+        }
+
+        // Ledger is the first field of other messages.
+        final var ledger = readInt(message, RHS);
+        if (ledger == null) {
+            REQUEST_BODY_NOT_VALID.send(routingContext);
+            return null;
+        }
+
+        return send(context().gl(ledger), message);
+    }
+
+    private Future<MemorySegment> routeBatch(final RoutingContext routingContext, final MemorySegment message,
+                                             final boolean atomic) {
+
+        if (context().glBatchSplitter() == null) {
+            return send(context().gl(), message);
+        }
+
+        final var ledgers = ledgers(message);
+        if (ledgers == null) {
+            REQUEST_BODY_NOT_VALID.send(routingContext);
+            return null;
+        }
+
+        final var upstream = context().gl(ledgers.length == 0 ? 0 : ledgers[0]);
+        for (final var ledger : ledgers) {
+            if (context().gl(ledger) == upstream) {
+                continue;
+            }
+
+            // An atomic batch can only be applied by a single GL shard.
+            if (atomic) {
+                LEDGERS_NOT_IN_SAME_SHARD.send(routingContext);
+                return null;
+            }
+
+            final var transactions = transactions(message);
+            if (transactions == null) {
+                REQUEST_BODY_NOT_VALID.send(routingContext);
+                return null;
+            }
+
+            return context().glBatchSplitter().submit(asList(transactions));
+        }
+
+        return send(upstream, message);
+    }
+
+    /**
+     * Reads ledgers of batch transactions; every transaction is a binary representation with ledger as its first field.
+     *
+     * @return ledgers or null if batch is not well formed
+     */
+    static int[] ledgers(final MemorySegment message) {
+        // Every transaction takes at least a header, which bounds the count before allocating.
+        final var count = readInt(message, RHS);
+        if (count == null || count < 0 || count > message.byteSize() / RHS) {
+            return null;
+        }
+
+        final var ledgers = new int[count];
+
+        long position = RHS + INT.byteSize();
+        for (int i = 0; i < count; i++) {
+            final var size = readInt(message, position + RHS - INT.byteSize());
+            final var ledger = readInt(message, position + RHS);
+            if (size == null || ledger == null || size < INT.byteSize()) {
+                return null;
+            }
+
+            ledgers[i] = ledger;
+            position += RHS + size;
+        }
+
+        return position == message.byteSize() ? ledgers : null;
+    }
+
+    /**
+     * Decodes transactions of batch; {@link #ledgers(MemorySegment)} only checks sizes and ledgers of transactions, so
+     * the rest of their fields may still not fit in their sizes.
+     *
+     * @return transactions or null if a transaction is not well formed
+     */
+    static Transaction[] transactions(final MemorySegment message) {
+        try {
+            return BatchBinaryRepresentation.transactions(message);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    protected boolean isSigned() {
+        return context().signatureVerifier() != null;
+    }
+
+    @Override
+    protected boolean verify(final RoutingContext routingContext, final MemorySegment message) {
+        if (context().signatureVerifier() == null) {
+            return true;
+        }
+
+        final var signature = routingContext.request().getHeader(SIGNATURE);
+        return signature != null &&
+                context().signatureVerifier().verify(message.toArray(JAVA_BYTE), signature.getBytes(ISO_8859_1));
+    }
+
+    @Override
+    protected void failed(final RoutingContext routingContext, final Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            GL_CONNECT_TIMEOUT.send(routingContext);
+        } else if (cause instanceof SocketTimeoutException) {
+            GL_REQUEST_TIMEOUT.send(routingContext);
+        } else if (cause instanceof ConnectionClosedException || cause instanceof SocketException ||
+                cause instanceof CircuitOpenException) {
+
+            GL_NOT_REACHABLE.send(routingContext);
+        } else {
+            logger.error("{}", cause.getMessage());
+            SERVER_ERROR.send(routingContext);
+        }
+    }
+}
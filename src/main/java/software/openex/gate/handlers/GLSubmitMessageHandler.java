@@ -17,13 +17,14 @@
  */
 package software.openex.gate.handlers;
 
-import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.Future;
 import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.RoutingContext;
 import software.openex.gate.binary.BinaryRepresentation;
-import software.openex.gate.binary.base.ErrorMessageBinaryRepresentation;
 import software.openex.gate.binary.gl.transaction.*;
 import software.openex.gate.binary.gl.wallet.*;
+import software.openex.gate.context.SignatureContent;
+import software.openex.gate.exceptions.CircuitOpenException;
 import software.openex.gate.exceptions.ConnectionClosedException;
 
 import java.lang.foreign.Arena;
@@ -31,16 +32,16 @@ import java.lang.foreign.MemorySegment;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-import static io.netty.handler.codec.http.HttpResponseStatus.PRECONDITION_FAILED;
-import static io.vertx.core.json.JsonObject.mapFrom;
 import static java.lang.Integer.parseInt;
-import static java.lang.String.format;
 import static java.lang.foreign.Arena.ofConfined;
-import static java.util.Optional.empty;
-import static java.util.Optional.of;
+import static software.openex.gate.binary.JsonWriter.render;
 import static software.openex.gate.binary.BinaryRepresentable.id;
 import static software.openex.gate.context.AppContext.context;
 import static software.openex.gate.handlers.Error.*;
@@ -49,6 +50,13 @@ import static software.openex.gate.handlers.Error.*;
  * @author Alireza Pourtaghi
  */
 public final class GLSubmitMessageHandler extends HTTPHandler {
+    private final boolean eventLoop;
+
+    public GLSubmitMessageHandler() {
+        // Handling can stay on event loop only if sending to GL never blocks.
+        this.eventLoop = context().config().loadBoolean("gl.event_loop_execution_enabled") &&
+                "async".equals(context().config().loadString("gl.transport"));
+    }
 
     @Override
     public void handle(final RoutingContext routingContext) {
@@ -67,6 +75,9 @@ public final class GLSubmitMessageHandler extends HTTPHandler {
         } catch (NumberFormatException ex) {
             logger.error("{}", ex.getMessage());
             ID_NOT_VALID.send(routingContext);
+        } catch (RejectedExecutionException ex) {
+            // Not logged; rejections are counted by worker executor and would flood the log under load.
+            SERVER_BUSY.send(routingContext);
         } catch (RuntimeException ex) {
             logger.error("{}", ex.getMessage());
             SERVER_ERROR.send(routingContext);
@@ -74,234 +85,308 @@ public final class GLSubmitMessageHandler extends HTTPHandler {
     }
 
     private void submitFetchAccount(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FetchAccount(
                     body.getInteger("ledger", 0),
                     body.getLong("account", 0L));
 
-            if (context().signatureVerifier() != null) {
-                var content = format("%s,%s", model.getLedger(), model.getAccount());
-                var signature = body.getString("signature", "");
-                if (!context().signatureVerifier().verify(content, signature)) {
-                    SIGNATURE_VERIFICATION_FAILED.send(routingContext);
-                    return;
-                }
-            }
+            final var signature = body.getString("signature", "");
+            verified(routingContext, () -> context().signatureVerifier().verifyCached(content ->
+                    content.field(model.getLedger()).field(model.getAccount()), signature), () -> {
 
-            try (final var arena = ofConfined()) {
-                final var message = new FetchAccountBinaryRepresentation(arena, model);
-                message.encodeV1();
+                try (final var arena = ofConfined()) {
+                    final var message = new FetchAccountBinaryRepresentation(arena, model);
+                    message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, WalletsBinaryRepresentation.items(result.get()));
-                    routingContext.next();
+                    submit(routingContext, model.getLedger(), arena, message.segment(),
+                            result -> render(result, WalletsBinaryRepresentation::writeJson));
                 }
-            }
+            });
         });
     }
 
     private void submitFetchWallet(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FetchWallet(
                     body.getInteger("ledger", 0),
                     body.getLong("account", 0L),
                     body.getInteger("wallet", 0));
 
-            if (context().signatureVerifier() != null) {
-                var content = format("%s,%s,%s", model.getLedger(), model.getAccount(), model.getWallet());
-                var signature = body.getString("signature", "");
-                if (!context().signatureVerifier().verify(content, signature)) {
-                    SIGNATURE_VERIFICATION_FAILED.send(routingContext);
-                    return;
-                }
-            }
+            final var signature = body.getString("signature", "");
+            verified(routingContext, () -> context().signatureVerifier().verifyCached(content -> content
+                    .field(model.getLedger())
+                    .field(model.getAccount())
+                    .field(model.getWallet()), signature), () -> {
 
-            try (final var arena = ofConfined()) {
-                final var message = new FetchWalletBinaryRepresentation(arena, model);
-                message.encodeV1();
+                try (final var arena = ofConfined()) {
+                    final var message = new FetchWalletBinaryRepresentation(arena, model);
+                    message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, WalletBinaryRepresentation.decode(result.get()));
-                    routingContext.next();
+                    submit(routingContext, model.getLedger(), arena, message.segment(),
+                            result -> render(result, WalletBinaryRepresentation::writeJson));
                 }
-            }
+            });
         });
     }
 
     private void submitBatch(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var transactions = body.getJsonArray("transactions", new JsonArray());
 
-            try (final var arena = ofConfined()) {
-                final var batch = new ArrayList<BinaryRepresentation<Transaction>>(transactions.size());
-                for (int i = 0; i < transactions.size(); i++) {
-                    final var transaction = transactions.getJsonObject(i);
-                    final var batchItem = new Transaction(
-                            transaction.getInteger("ledger", 0),
-                            transaction.getLong("sourceAccount", 0L),
-                            transaction.getInteger("sourceWallet", 0),
-                            transaction.getLong("destinationAccount", 0L),
-                            transaction.getInteger("destinationWallet", 0),
-                            transaction.getString("id", ""),
-                            transaction.getString("currency", ""),
-                            transaction.getLong("amount", 0L),
-                            transaction.getLong("maxOverdraftAmount", 0L),
-                            transaction.getString("metadata", ""));
-
-                    if (context().signatureVerifier() != null) {
-                        var content = format("%s,%s,%s,%s,%s,%s,%s",
-                                batchItem.getLedger(),
-                                batchItem.getSourceAccount(),
-                                batchItem.getSourceWallet(),
-                                batchItem.getDestinationAccount(),
-                                batchItem.getDestinationWallet(),
-                                batchItem.getCurrency(),
-                                batchItem.getAmount());
-
-                        var signature = transaction.getString("signature", "");
-                        if (!context().signatureVerifier().verify(content, signature)) {
-                            SIGNATURE_VERIFICATION_FAILED.send(routingContext);
-                            return;
-                        }
-                    }
+            final var batch = new ArrayList<Transaction>(transactions.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                final var transaction = transactions.getJsonObject(i);
+                final var batchItem = new Transaction(
+                        transaction.getInteger("ledger", 0),
+                        transaction.getLong("sourceAccount", 0L),
+                        transaction.getInteger("sourceWallet", 0),
+                        transaction.getLong("destinationAccount", 0L),
+                        transaction.getInteger("destinationWallet", 0),
+                        transaction.getString("id", ""),
+                        transaction.getString("currency", ""),
+                        transaction.getLong("amount", 0L),
+                        transaction.getLong("maxOverdraftAmount", 0L),
+                        transaction.getString("metadata", ""));
+
+                batch.add(batchItem);
+            }
+
+            verified(routingContext, () -> verify(transactions, batch), () -> {
+                if (context().glBatchSplitter() != null) {
+                    respond(routingContext, context().glBatchSplitter().submit(batch),
+                            result -> render(result, FailedTransactionsBinaryRepresentation::writeJson));
+                    return;
+                }
 
-                    final var batchItemBinaryRepresentation = new TransactionBinaryRepresentation(arena, batchItem);
-                    batchItemBinaryRepresentation.encodeV1();
-                    batch.add(batchItemBinaryRepresentation);
+                if (context().glBatchCoalescer() != null) {
+                    respond(routingContext, context().glBatchCoalescer().submit(batch),
+                            result -> render(result, FailedTransactionsBinaryRepresentation::writeJson));
+                    return;
                 }
 
-                final var model = new Batch(batch);
-                final var message = new BatchBinaryRepresentation(arena, model);
-                message.encodeV1();
+                try (final var arena = ofConfined()) {
+                    final var batchItems = new ArrayList<BinaryRepresentation<Transaction>>(batch.size());
+                    for (final var batchItem : batch) {
+                        final var batchItemBinaryRepresentation = new TransactionBinaryRepresentation(arena, batchItem);
+                        batchItemBinaryRepresentation.encodeV1();
+                        batchItems.add(batchItemBinaryRepresentation);
+                    }
+
+                    final var model = new Batch(batchItems);
+                    final var message = new BatchBinaryRepresentation(arena, model);
+                    message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, FailedTransactionsBinaryRepresentation.items(result.get()));
-                    routingContext.next();
+                    submit(routingContext, ledger(batch), arena, message.segment(),
+                            result -> render(result, FailedTransactionsBinaryRepresentation::writeJson));
                 }
-            }
+            });
         });
     }
 
     private void submitAtomicBatch(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var transactions = body.getJsonArray("transactions", new JsonArray());
 
-            try (final var arena = ofConfined()) {
-                final var batch = new ArrayList<BinaryRepresentation<Transaction>>(transactions.size());
-                for (int i = 0; i < transactions.size(); i++) {
-                    final var transaction = transactions.getJsonObject(i);
-                    final var batchItem = new Transaction(
-                            transaction.getInteger("ledger", 0),
-                            transaction.getLong("sourceAccount", 0L),
-                            transaction.getInteger("sourceWallet", 0),
-                            transaction.getLong("destinationAccount", 0L),
-                            transaction.getInteger("destinationWallet", 0),
-                            transaction.getString("id", ""),
-                            transaction.getString("currency", ""),
-                            transaction.getLong("amount", 0L),
-                            transaction.getLong("maxOverdraftAmount", 0L),
-                            transaction.getString("metadata", ""));
-
-                    if (context().signatureVerifier() != null) {
-                        var content = format("%s,%s,%s,%s,%s,%s,%s",
-                                batchItem.getLedger(),
-                                batchItem.getSourceAccount(),
-                                batchItem.getSourceWallet(),
-                                batchItem.getDestinationAccount(),
-                                batchItem.getDestinationWallet(),
-                                batchItem.getCurrency(),
-                                batchItem.getAmount());
-
-                        var signature = transaction.getString("signature", "");
-                        if (!context().signatureVerifier().verify(content, signature)) {
-                            SIGNATURE_VERIFICATION_FAILED.send(routingContext);
-                            return;
-                        }
-                    }
+            final var batch = new ArrayList<Transaction>(transactions.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                final var transaction = transactions.getJsonObject(i);
+                final var batchItem = new Transaction(
+                        transaction.getInteger("ledger", 0),
+                        transaction.getLong("sourceAccount", 0L),
+                        transaction.getInteger("sourceWallet", 0),
+                        transaction.getLong("destinationAccount", 0L),
+                        transaction.getInteger("destinationWallet", 0),
+                        transaction.getString("id", ""),
+                        transaction.getString("currency", ""),
+                        transaction.getLong("amount", 0L),
+                        transaction.getLong("maxOverdraftAmount", 0L),
+                        transaction.getString("metadata", ""));
+
+                batch.add(batchItem);
+            }
 
-                    final var batchItemBinaryRepresentation = new TransactionBinaryRepresentation(arena, batchItem);
-                    batchItemBinaryRepresentation.encodeV1();
-                    batch.add(batchItemBinaryRepresentation);
+            verified(routingContext, () -> verify(transactions, batch), () -> {
+                // An atomic batch can only be applied by a single GL shard.
+                final var upstream = context().gl(ledger(batch));
+                for (final var batchItem : batch) {
+                    if (context().gl(batchItem.getLedger()) != upstream) {
+                        LEDGERS_NOT_IN_SAME_SHARD.send(routingContext);
+                        return;
+                    }
                 }
 
-                final var model = new Batch(batch);
-                final var message = new AtomicBatchBinaryRepresentation(arena, model);
-                message.encodeV1();
+                try (final var arena = ofConfined()) {
+                    final var batchItems = new ArrayList<BinaryRepresentation<Transaction>>(batch.size());
+                    for (final var batchItem : batch) {
+                        final var batchItemBinaryRepresentation = new TransactionBinaryRepresentation(arena, batchItem);
+                        batchItemBinaryRepresentation.encodeV1();
+                        batchItems.add(batchItemBinaryRepresentation);
+                    }
+
+                    final var model = new Batch(batchItems);
+                    final var message = new AtomicBatchBinaryRepresentation(arena, model);
+                    message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, FailedTransactionsBinaryRepresentation.items(result.get()));
-                    routingContext.next();
+                    submit(routingContext, ledger(batch), arena, message.segment(),
+                            result -> render(result, FailedTransactionsBinaryRepresentation::writeJson));
                 }
-            }
+            });
         });
     }
 
     private void submitInquiryTransaction(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new InquiryTransaction(
                     body.getInteger("ledger", 0),
                     body.getString("id", ""));
 
-            if (context().signatureVerifier() != null) {
-                var content = format("%s,%s", model.getLedger(), model.getId());
-                var signature = body.getString("signature", "");
-                if (!context().signatureVerifier().verify(content, signature)) {
-                    SIGNATURE_VERIFICATION_FAILED.send(routingContext);
-                    return;
+            final var signature = body.getString("signature", "");
+            verified(routingContext, () -> context().signatureVerifier().verify(content ->
+                    content.field(model.getLedger()).field(model.getId()), signature), () -> {
+
+                try (final var arena = ofConfined()) {
+                    final var message = new InquiryTransactionBinaryRepresentation(arena, model);
+                    message.encodeV1();
+
+                    submit(routingContext, model.getLedger(), arena, message.segment(),
+                            TransactionBinaryRepresentation::decode);
                 }
+            });
+        });
+    }
+
+    private static int ledger(final List<Transaction> batch) {
+        return batch.isEmpty() ? 0 : batch.getFirst().getLedger();
+    }
+
+    private boolean verify(final JsonArray transactions, final List<Transaction> batch) {
+        final var contents = new ArrayList<Consumer<SignatureContent>>(batch.size());
+        final var signatures = new ArrayList<String>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            final var batchItem = batch.get(i);
+            contents.add(content -> content
+                    .field(batchItem.getLedger())
+                    .field(batchItem.getSourceAccount())
+                    .field(batchItem.getSourceWallet())
+                    .field(batchItem.getDestinationAccount())
+                    .field(batchItem.getDestinationWallet())
+                    .field(batchItem.getCurrency())
+                    .field(batchItem.getAmount()));
+
+            signatures.add(transactions.getJsonObject(i).getString("signature", ""));
+        }
+
+        return context().signatureVerifier().verifyAll(contents, signatures);
+    }
+
+    private void execute(final Runnable task) {
+        if (eventLoop) {
+            task.run();
+        } else {
+            context().executors().worker().submit(task);
+        }
+    }
+
+    /**
+     * Runs next if signature verification is disabled or succeeds. In event loop mode, verification is run by worker
+     * executor and next is run back on event loop.
+     */
+    private void verified(final RoutingContext routingContext, final BooleanSupplier verification,
+                          final Runnable next) {
+
+        if (context().signatureVerifier() == null) {
+            next.run();
+            return;
+        }
+
+        if (!eventLoop) {
+            if (verification.getAsBoolean()) {
+                next.run();
+            } else {
+                SIGNATURE_VERIFICATION_FAILED.send(routingContext);
             }
 
-            try (final var arena = ofConfined()) {
-                final var message = new InquiryTransactionBinaryRepresentation(arena, model);
-                message.encodeV1();
+            return;
+        }
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, TransactionBinaryRepresentation.decode(result.get()));
-                    routingContext.next();
+        final var eventLoopContext = routingContext.vertx().getOrCreateContext();
+        context().executors().worker().submit(() -> {
+            final var verifiedSignature = verification.getAsBoolean();
+            eventLoopContext.runOnContext(v -> {
+                try {
+                    if (verifiedSignature) {
+                        next.run();
+                    } else {
+                        SIGNATURE_VERIFICATION_FAILED.send(routingContext);
+                    }
+                } catch (RuntimeException ex) {
+                    logger.error("{}", ex.getMessage());
+                    SERVER_ERROR.send(routingContext);
                 }
-            }
+            });
         });
     }
 
-    private Optional<MemorySegment> submit(final RoutingContext routingContext, final Arena arena,
-                                           final MemorySegment message) {
+    private void submit(final RoutingContext routingContext, final int ledger, final Arena arena,
+                        final MemorySegment message, final Function<MemorySegment, Object> decoder) {
+
+        final var upstream = context().gl(ledger);
+        if (upstream.isNonBlocking()) {
+            respond(routingContext, upstream.sendAsync(message), decoder);
+            return;
+        }
 
         try {
-            final var result = context().gl().send(arena, message);
-            if (id(result) == -1) {
-                error(routingContext, result);
+            respond(routingContext, upstream.send(arena, message), decoder);
+        } catch (Exception ex) {
+            failed(routingContext, ex);
+        }
+    }
+
+    private void respond(final RoutingContext routingContext, final Future<MemorySegment> response,
+                         final Function<MemorySegment, Object> decoder) {
+
+        onCallerContext(response).onComplete(result -> {
+            if (result.succeeded()) {
+                respond(routingContext, result.result(), decoder);
             } else {
-                return of(result);
+                failed(routingContext, result.cause());
             }
-        } catch (TimeoutException ex) {
+        });
+    }
+
+    private void respond(final RoutingContext routingContext, final MemorySegment result,
+                         final Function<MemorySegment, Object> decoder) {
+
+        if (id(result) == -1) {
+            error(routingContext, result);
+        } else {
+            routingContext.put(RESPONSE_BODY, decoder.apply(result));
+            routingContext.next();
+        }
+    }
+
+    private void failed(final RoutingContext routingContext, final Throwable cause) {
+        if (cause instanceof TimeoutException) {
             GL_CONNECT_TIMEOUT.send(routingContext);
-        } catch (SocketTimeoutException ex) {
+        } else if (cause instanceof SocketTimeoutException) {
             GL_REQUEST_TIMEOUT.send(routingContext);
-        } catch (ConnectionClosedException | SocketException ex) {
+        } else if (cause instanceof ConnectionClosedException || cause instanceof SocketException ||
+                cause instanceof CircuitOpenException) {
+
             GL_NOT_REACHABLE.send(routingContext);
-        } catch (Exception ex) {
-            logger.error("{}", ex.getMessage());
+        } else {
+            logger.error("{}", cause.getMessage());
             SERVER_ERROR.send(routingContext);
         }
-
-        return empty();
     }
 
     private void error(final RoutingContext routingContext, final MemorySegment result) {
-        final var errorMessage = ErrorMessageBinaryRepresentation.decode(result);
-        routingContext.response()
-                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
-                .setStatusCode(PRECONDITION_FAILED.code())
-                .end(mapFrom(errorMessage).toBuffer());
+        ErrorMessageResponses.send(routingContext, result);
     }
 }
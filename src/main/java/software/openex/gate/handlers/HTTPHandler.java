@@ -17,10 +17,14 @@
  */
 package software.openex.gate.handlers;
 
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.ext.web.RoutingContext;
 import org.slf4j.Logger;
 
+import static io.vertx.core.http.HttpHeaders.createOptimized;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -35,4 +39,33 @@ public abstract class HTTPHandler implements Handler<RoutingContext> {
     protected static final String X_FORWARDED_FOR = "X-Forwarded-For";
     protected static final String CACHE_CONTROL = "Cache-Control";
     protected static final String RESPONSE_BODY = "Response-Body";
+    protected static final CharSequence APPLICATION_JSON = createOptimized("application/json");
+    protected static final CharSequence APPLICATION_OCTET_STREAM = createOptimized("application/octet-stream");
+
+    /**
+     * Returns a future that completes on the vertx context of the caller, so routing context of a request handled on an
+     * event loop is only touched by that event loop. Upstream responses are read on event loops of their own
+     * connections, so this costs a task dispatch between event loops per response instead of pinning connections to
+     * event loops; callers that are not on a vertx context get the same future.
+     *
+     * @param future future that may complete on any thread
+     * @return future that completes on caller's context
+     */
+    protected static <T> Future<T> onCallerContext(final Future<T> future) {
+        final var caller = Vertx.currentContext();
+        if (caller == null) {
+            return future;
+        }
+
+        final var promise = Promise.<T>promise();
+        future.onComplete(result -> {
+            if (Vertx.currentContext() == caller) {
+                promise.handle(result);
+            } else {
+                caller.runOnContext(v -> promise.handle(result));
+            }
+        });
+
+        return promise.future();
+    }
 }
@@ -17,6 +17,7 @@
  */
 package software.openex.gate.handlers;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.web.RoutingContext;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
@@ -36,10 +37,12 @@ public final class JsonBodyResponderHandler extends HTTPHandler {
         try {
             routingContext.response().putHeader(CACHE_CONTROL, "no-store");
 
-            final var response = encodeToBuffer(routingContext.get(RESPONSE_BODY));
+            // Response bodies that are already rendered from binary representations are written as is.
+            final var body = routingContext.get(RESPONSE_BODY);
+            final var response = body instanceof Buffer buffer ? buffer : encodeToBuffer(body);
             routingContext.response()
                     .setStatusCode(OK.code())
-                    .putHeader(CONTENT_TYPE, "application/json")
+                    .putHeader(CONTENT_TYPE, APPLICATION_JSON)
                     .end(response);
         } catch (RuntimeException ex) {
             logger.error("{}", ex.getMessage());
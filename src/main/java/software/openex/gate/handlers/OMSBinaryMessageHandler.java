@@ -0,0 +1,77 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.RoutingContext;
+import software.openex.gate.exceptions.CircuitOpenException;
+import software.openex.gate.exceptions.ConnectionClosedException;
+
+import java.lang.foreign.MemorySegment;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static software.openex.gate.binary.BinaryRepresentable.*;
+import static software.openex.gate.context.AppContext.context;
+import static software.openex.gate.handlers.Error.*;
+
+/**
+ * Handler of binary OMS messages. If OMS routing is enabled, messages are routed by their symbols the same as JSON
+ * messages.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class OMSBinaryMessageHandler extends BinaryMessageHandler {
+
+    public OMSBinaryMessageHandler() {
+        super("oms", Set.of(101, 102, 104, 105, 107, 108, 109, 110, 111, 112, 113, 114, 119));
+    }
+
+    @Override
+    protected Future<MemorySegment> route(final RoutingContext routingContext, final MemorySegment message) {
+        // Symbol is the first field of fetch messages and follows id and ts of orders.
+        final var id = id(message);
+        final var offset = id == 105 || id == 119 ? RHS : RHS + 2 * LONG.byteSize();
+
+        final var symbol = readString(message, offset);
+        if (symbol == null) {
+            REQUEST_BODY_NOT_VALID.send(routingContext);
+            return null;
+        }
+
+        return send(context().oms(symbol), message);
+    }
+
+    @Override
+    protected void failed(final RoutingContext routingContext, final Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            OMS_CONNECT_TIMEOUT.send(routingContext);
+        } else if (cause instanceof SocketTimeoutException) {
+            OMS_REQUEST_TIMEOUT.send(routingContext);
+        } else if (cause instanceof ConnectionClosedException || cause instanceof SocketException ||
+                cause instanceof CircuitOpenException) {
+
+            OMS_NOT_REACHABLE.send(routingContext);
+        } else {
+            logger.error("{}", cause.getMessage());
+            SERVER_ERROR.send(routingContext);
+        }
+    }
+}
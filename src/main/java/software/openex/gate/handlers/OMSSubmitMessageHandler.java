@@ -17,10 +17,7 @@
  */
 package software.openex.gate.handlers;
 
-import io.vertx.core.http.HttpHeaders;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
-import software.openex.gate.binary.base.ErrorMessageBinaryRepresentation;
 import software.openex.gate.binary.oms.order.*;
 import software.openex.gate.binary.oms.order.book.FetchOrderBook;
 import software.openex.gate.binary.oms.order.book.FetchOrderBookBinaryRepresentation;
@@ -28,21 +25,20 @@ import software.openex.gate.binary.oms.order.book.OrderBookBinaryRepresentation;
 import software.openex.gate.binary.oms.order.record.FetchOrderRecord;
 import software.openex.gate.binary.oms.order.record.FetchOrderRecordBinaryRepresentation;
 import software.openex.gate.binary.oms.order.record.OrderRecordBinaryRepresentation;
+import software.openex.gate.exceptions.CircuitOpenException;
 import software.openex.gate.exceptions.ConnectionClosedException;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
-import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
-import static io.netty.handler.codec.http.HttpResponseStatus.PRECONDITION_FAILED;
-import static io.vertx.core.json.JsonObject.mapFrom;
 import static java.lang.Integer.parseInt;
 import static java.lang.foreign.Arena.ofConfined;
-import static java.util.Optional.empty;
-import static java.util.Optional.of;
+import static software.openex.gate.binary.JsonWriter.render;
 import static software.openex.gate.binary.BinaryRepresentable.id;
 import static software.openex.gate.context.AppContext.context;
 import static software.openex.gate.handlers.Error.*;
@@ -51,6 +47,13 @@ import static software.openex.gate.handlers.Error.*;
  * @author Alireza Pourtaghi
  */
 public final class OMSSubmitMessageHandler extends HTTPHandler {
+    private final boolean eventLoop;
+
+    public OMSSubmitMessageHandler() {
+        // Handling can stay on event loop only if sending to OMS never blocks.
+        this.eventLoop = context().config().loadBoolean("oms.event_loop_execution_enabled") &&
+                "async".equals(context().config().loadString("oms.transport"));
+    }
 
     @Override
     public void handle(final RoutingContext routingContext) {
@@ -77,6 +80,9 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
         } catch (NumberFormatException ex) {
             logger.error("{}", ex.getMessage());
             ID_NOT_VALID.send(routingContext);
+        } catch (RejectedExecutionException ex) {
+            // Not logged; rejections are counted by worker executor and would flood the log under load.
+            SERVER_BUSY.send(routingContext);
         } catch (RuntimeException ex) {
             logger.error("{}", ex.getMessage());
             SERVER_ERROR.send(routingContext);
@@ -84,7 +90,7 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
     }
 
     private void submitBuyLimitOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new BuyLimitOrder(
                     body.getLong("id"),
@@ -97,17 +103,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new LimitOrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, BuyLimitOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), BuyLimitOrder::decode);
             }
         });
     }
 
     private void submitSellLimitOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new SellLimitOrder(
                     body.getLong("id"),
@@ -120,17 +122,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new LimitOrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, SellLimitOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), SellLimitOrder::decode);
             }
         });
     }
 
     private void submitCancelOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new CancelOrder(
                     body.getLong("id"),
@@ -142,43 +140,53 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new OrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, CancelOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), CancelOrder::decode);
             }
         });
     }
 
     private void submitFetchOrderBook(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FetchOrderBook(
                     body.getString("symbol"),
                     body.getInteger("fetchSize", 10));
 
+            // Cached order books may be deeper than requested, so only the requested number of records are rendered.
+            final Function<MemorySegment, Object> decoder = result -> render(result, (segment, writer) ->
+                    OrderBookBinaryRepresentation.writeJson(segment, writer, model.getFetchSize()));
+
+            final var cache = context().omsOrderBookCache();
+            if (cache != null) {
+                onCallerContext(cache.fetch(model, () -> {
+                    try (final var arena = ofConfined()) {
+                        final var message = new FetchOrderBookBinaryRepresentation(arena, model);
+                        message.encodeV1();
+
+                        return context().oms(model.getSymbol()).sendAsync(message.segment());
+                    }
+                })).onComplete(result -> {
+                    if (result.succeeded()) {
+                        respond(routingContext, result.result(), decoder);
+                    } else {
+                        failed(routingContext, result.cause());
+                    }
+                });
+
+                return;
+            }
+
             try (final var arena = ofConfined()) {
                 final var message = new FetchOrderBookBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    final var bids = OrderBookBinaryRepresentation.bids(result.get());
-                    final var asks = OrderBookBinaryRepresentation.asks(result.get());
-                    final var response = new JsonObject()
-                            .put("bids", bids)
-                            .put("asks", asks);
-
-                    routingContext.put(RESPONSE_BODY, response);
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), decoder);
             }
         });
     }
 
     private void submitBuyMarketOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new BuyMarketOrder(
                     body.getLong("id"),
@@ -190,17 +198,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new OrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, BuyMarketOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), BuyMarketOrder::decode);
             }
         });
     }
 
     private void submitSellMarketOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new SellMarketOrder(
                     body.getLong("id"),
@@ -212,17 +216,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new OrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, SellMarketOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), SellMarketOrder::decode);
             }
         });
     }
 
     private void submitIOCBuyLimitOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new IOCBuyLimitOrder(
                     body.getLong("id"),
@@ -235,17 +235,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new LimitOrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, IOCBuyLimitOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), IOCBuyLimitOrder::decode);
             }
         });
     }
 
     private void submitIOCSellLimitOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new IOCSellLimitOrder(
                     body.getLong("id"),
@@ -258,17 +254,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new LimitOrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, IOCSellLimitOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), IOCSellLimitOrder::decode);
             }
         });
     }
 
     private void submitFOKBuyLimitOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FOKBuyLimitOrder(
                     body.getLong("id"),
@@ -281,17 +273,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new LimitOrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, FOKBuyLimitOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), FOKBuyLimitOrder::decode);
             }
         });
     }
 
     private void submitFOKSellLimitOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FOKSellLimitOrder(
                     body.getLong("id"),
@@ -304,17 +292,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new LimitOrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, FOKSellLimitOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), FOKSellLimitOrder::decode);
             }
         });
     }
 
     private void submitFOKBuyMarketOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FOKBuyMarketOrder(
                     body.getLong("id"),
@@ -326,17 +310,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new OrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, FOKBuyMarketOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), FOKBuyMarketOrder::decode);
             }
         });
     }
 
     private void submitFOKSellMarketOrder(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FOKSellMarketOrder(
                     body.getLong("id"),
@@ -348,17 +328,13 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new OrderBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, FOKSellMarketOrder.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(), FOKSellMarketOrder::decode);
             }
         });
     }
 
     private void submitFetchOrderRecord(final RoutingContext routingContext) {
-        context().executors().worker().submit(() -> {
+        execute(() -> {
             final var body = routingContext.body().asJsonObject();
             final var model = new FetchOrderRecord(
                     body.getString("symbol"),
@@ -368,44 +344,70 @@ public final class OMSSubmitMessageHandler extends HTTPHandler {
                 final var message = new FetchOrderRecordBinaryRepresentation(arena, model);
                 message.encodeV1();
 
-                final var result = submit(routingContext, arena, message.segment());
-                if (result.isPresent()) {
-                    routingContext.put(RESPONSE_BODY, OrderRecordBinaryRepresentation.decode(result.get()));
-                    routingContext.next();
-                }
+                submit(routingContext, model.getSymbol(), arena, message.segment(),
+                        result -> render(result, OrderRecordBinaryRepresentation::writeJson));
             }
         });
     }
 
-    private Optional<MemorySegment> submit(final RoutingContext routingContext, final Arena arena,
-                                           final MemorySegment message) {
+    private void execute(final Runnable task) {
+        if (eventLoop) {
+            task.run();
+        } else {
+            context().executors().worker().submit(task);
+        }
+    }
+
+    private void submit(final RoutingContext routingContext, final String symbol, final Arena arena,
+                        final MemorySegment message, final Function<MemorySegment, Object> decoder) {
+
+        final var upstream = context().oms(symbol);
+        if (upstream.isNonBlocking()) {
+            onCallerContext(upstream.sendAsync(message)).onComplete(result -> {
+                if (result.succeeded()) {
+                    respond(routingContext, result.result(), decoder);
+                } else {
+                    failed(routingContext, result.cause());
+                }
+            });
+
+            return;
+        }
 
         try {
-            final var result = context().oms().send(arena, message);
-            if (id(result) == -1) {
-                error(routingContext, result);
-            } else {
-                return of(result);
-            }
-        } catch (TimeoutException ex) {
+            respond(routingContext, upstream.send(arena, message), decoder);
+        } catch (Exception ex) {
+            failed(routingContext, ex);
+        }
+    }
+
+    private void respond(final RoutingContext routingContext, final MemorySegment result,
+                         final Function<MemorySegment, Object> decoder) {
+
+        if (id(result) == -1) {
+            error(routingContext, result);
+        } else {
+            routingContext.put(RESPONSE_BODY, decoder.apply(result));
+            routingContext.next();
+        }
+    }
+
+    private void failed(final RoutingContext routingContext, final Throwable cause) {
+        if (cause instanceof TimeoutException) {
             OMS_CONNECT_TIMEOUT.send(routingContext);
-        } catch (SocketTimeoutException ex) {
+        } else if (cause instanceof SocketTimeoutException) {
             OMS_REQUEST_TIMEOUT.send(routingContext);
-        } catch (ConnectionClosedException | SocketException ex) {
+        } else if (cause instanceof ConnectionClosedException || cause instanceof SocketException ||
+                cause instanceof CircuitOpenException) {
+
             OMS_NOT_REACHABLE.send(routingContext);
-        } catch (Exception ex) {
-            logger.error("{}", ex.getMessage());
+        } else {
+            logger.error("{}", cause.getMessage());
             SERVER_ERROR.send(routingContext);
         }
-
-        return empty();
     }
 
     private void error(final RoutingContext routingContext, final MemorySegment result) {
-        final var errorMessage = ErrorMessageBinaryRepresentation.decode(result);
-        routingContext.response()
-                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
-                .setStatusCode(PRECONDITION_FAILED.code())
-                .end(mapFrom(errorMessage).toBuffer());
+        ErrorMessageResponses.send(routingContext, result);
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import io.vertx.ext.web.RoutingContext;
+import software.openex.gate.context.RateLimiter;
+
+import static software.openex.gate.handlers.Error.TOO_MANY_REQUESTS;
+
+/**
+ * Rate limiter handler implementation that limits requests of every client by its real ip, and optionally by message
+ * id too. Must be placed after {@link RealIPDetectorHandler}.
+ *
+ * @author Alireza Pourtaghi
+ */
+public final class RateLimiterHandler extends HTTPHandler {
+    private final RateLimiter limiter;
+    private final boolean perMessage;
+
+    public RateLimiterHandler(final RateLimiter limiter, final boolean perMessage) {
+        this.limiter = limiter;
+        this.perMessage = perMessage;
+    }
+
+    @Override
+    public void handle(final RoutingContext routingContext) {
+        final var ip = routingContext.request().getHeader(X_REAL_IP);
+        final var key = perMessage ? ip + "/" + routingContext.request().getParam("id") : ip;
+
+        if (!limiter.tryAcquire(key)) {
+            TOO_MANY_REQUESTS.send(routingContext);
+            return;
+        }
+
+        routingContext.next();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.junit.jupiter.api.Test;
+import software.openex.gate.binary.base.ErrorMessage;
+import software.openex.gate.binary.base.ErrorMessageBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.BatchBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.FailedTransaction;
+import software.openex.gate.binary.gl.transaction.FailedTransactionsBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.Transaction;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.util.Arrays.stream;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static software.openex.gate.binary.BinaryRepresentable.id;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class BatchCoalescerTest {
+
+    @Test
+    void splitsFailedTransactionsBetweenSubmissions() {
+        final var upstream = new TestUpstream(message -> failed("a2", "b1"));
+        final var coalescer = new BatchCoalescer(upstream, SECONDS.toNanos(10), 100);
+
+        final var first = coalescer.submit(transactions("a1", "a2"));
+        final var second = coalescer.submit(transactions("b1"));
+        coalescer.close();
+
+        assertEquals(1, upstream.messages.size());
+        assertEquals(List.of("a1", "a2", "b1"), ids(upstream.messages.getFirst()));
+        assertEquals(List.of("a2"), failedIds(first.result()));
+        assertEquals(List.of("b1"), failedIds(second.result()));
+    }
+
+    @Test
+    void neverMergesMoreThanMaxTransactions() {
+        final var upstream = new TestUpstream(message -> failed());
+        final var coalescer = new BatchCoalescer(upstream, SECONDS.toNanos(10), 3);
+
+        final var first = coalescer.submit(transactions("a1", "a2"));
+        final var second = coalescer.submit(transactions("b1", "b2"));
+        final var third = coalescer.submit(transactions("c1"));
+        coalescer.close();
+
+        assertEquals(2, upstream.messages.size());
+        assertEquals(List.of("a1", "a2"), ids(upstream.messages.get(0)));
+        assertEquals(List.of("b1", "b2", "c1"), ids(upstream.messages.get(1)));
+        assertTrue(first.succeeded() && second.succeeded() && third.succeeded());
+    }
+
+    @Test
+    void separatesSubmissionsWithSameTransactionId() {
+        // Only the first upstream batch fails the shared id.
+        final var upstream = new TestUpstream(message -> ids(message).contains("b1") ? failed() : failed("x1"));
+        final var coalescer = new BatchCoalescer(upstream, SECONDS.toNanos(10), 100);
+
+        final var first = coalescer.submit(transactions("a1", "x1"));
+        final var second = coalescer.submit(transactions("x1", "b1"));
+        coalescer.close();
+
+        assertEquals(2, upstream.messages.size());
+        assertEquals(List.of("a1", "x1"), ids(upstream.messages.get(0)));
+        assertEquals(List.of("x1", "b1"), ids(upstream.messages.get(1)));
+        assertEquals(List.of("x1"), failedIds(first.result()));
+        assertEquals(List.of(), failedIds(second.result()));
+    }
+
+    @Test
+    void retriesSubmissionsOneByOneOnErrorMessage() {
+        final var upstream = new TestUpstream(message ->
+                ids(message).contains("bad") ? error("transaction.not_valid") : failed());
+        final var coalescer = new BatchCoalescer(upstream, SECONDS.toNanos(10), 100);
+
+        final var good = coalescer.submit(transactions("a1"));
+        final var bad = coalescer.submit(transactions("bad"));
+        coalescer.close();
+
+        assertEquals(3, upstream.messages.size());
+        assertEquals(List.of(), failedIds(good.result()));
+        assertEquals(-1, id(bad.result()));
+        assertEquals("transaction.not_valid", ErrorMessageBinaryRepresentation.decode(bad.result()).getCode());
+    }
+
+    @Test
+    void failsAllSubmissionsWhenUpstreamFails() {
+        final var upstream = new TestUpstream(message -> {
+            throw new IllegalStateException("unreachable");
+        });
+        final var coalescer = new BatchCoalescer(upstream, SECONDS.toNanos(10), 100);
+
+        final var first = coalescer.submit(transactions("a1"));
+        final var second = coalescer.submit(transactions("b1"));
+        coalescer.close();
+
+        assertTrue(first.failed() && second.failed());
+    }
+
+    static List<Transaction> transactions(final String... ids) {
+        return stream(ids).map(id -> new Transaction(1, 1, 1, 2, 1, id, "IRR", 10, 0, "")).toList();
+    }
+
+    static List<String> ids(final MemorySegment batch) {
+        return stream(BatchBinaryRepresentation.transactions(batch)).map(Transaction::getId).toList();
+    }
+
+    static MemorySegment failed(final String... ids) {
+        return BatchCoalescer.encode(stream(ids).map(id -> new FailedTransaction(id, "balance.not_enough")).toList());
+    }
+
+    static List<String> failedIds(final MemorySegment response) {
+        return stream(FailedTransactionsBinaryRepresentation.items(response)).map(FailedTransaction::getId).toList();
+    }
+
+    static MemorySegment error(final String code) {
+        final var message = new ErrorMessageBinaryRepresentation(ofAuto(), new ErrorMessage(code, code));
+        message.encodeV1();
+
+        return message.segment();
+    }
+}
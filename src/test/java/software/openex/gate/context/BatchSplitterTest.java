@@ -0,0 +1,69 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+import org.junit.jupiter.api.Test;
+import software.openex.gate.binary.gl.transaction.FailedTransactionsBinaryRepresentation;
+
+import java.lang.foreign.MemorySegment;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import static java.util.Arrays.stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static software.openex.gate.context.BatchCoalescerTest.*;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class BatchSplitterTest {
+
+    @Test
+    void mergesFailedTransactionsOfAllShards() {
+        final var response = BatchSplitter.merge(
+                List.of(transactions("a1", "a2"), transactions("b1", "b2")),
+                List.of(Future.succeededFuture(failed("a2")), Future.succeededFuture(failed("b1"))));
+
+        assertEquals(List.of("a2", "b1"), failedIds(response));
+    }
+
+    @Test
+    void reportsTransactionsOfErroredShardAsFailed() {
+        final var response = BatchSplitter.merge(
+                List.of(transactions("a1"), transactions("b1", "b2")),
+                List.of(Future.succeededFuture(failed()), Future.succeededFuture(error("ledger.not_valid"))));
+
+        assertEquals(List.of("b1:ledger.not_valid", "b2:ledger.not_valid"), reasons(response));
+    }
+
+    @Test
+    void reportsTransactionsOfUnreachableShardAsFailed() {
+        final var response = BatchSplitter.merge(
+                List.of(transactions("a1"), transactions("b1", "b2")),
+                List.of(Future.failedFuture(new SocketTimeoutException()), Future.succeededFuture(failed("b2"))));
+
+        assertEquals(List.of("a1:gl.request_timeout", "b2:balance.not_enough"), reasons(response));
+    }
+
+    private static List<String> reasons(final MemorySegment response) {
+        return stream(FailedTransactionsBinaryRepresentation.items(response))
+                .map(item -> item.getId() + ":" + item.getReason())
+                .toList();
+    }
+}
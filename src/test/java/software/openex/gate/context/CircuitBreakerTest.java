@@ -0,0 +1,139 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.junit.jupiter.api.Test;
+import software.openex.gate.exceptions.CircuitOpenException;
+
+import java.lang.foreign.MemorySegment;
+import java.net.SocketException;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class CircuitBreakerTest {
+    private static final MemorySegment MESSAGE = ofArray(new byte[10]);
+    private static final long OPEN_DURATION = SECONDS.toNanos(1);
+
+    private final TestUpstream upstream = new TestUpstream(message -> message);
+
+    @Test
+    void staysClosedBelowMinimumRequests() {
+        failing();
+        final var breaker = breaker(SECONDS.toNanos(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(SocketException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        }
+
+        assertEquals(3, upstream.messages.size());
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() throws Exception {
+        final var breaker = breaker(SECONDS.toNanos(10));
+        breaker.send(ofAuto(), MESSAGE);
+        breaker.send(ofAuto(), MESSAGE);
+
+        failing();
+        assertThrows(SocketException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        assertThrows(SocketException.class, () -> breaker.send(ofAuto(), MESSAGE));
+
+        assertThrows(CircuitOpenException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        assertInstanceOf(CircuitOpenException.class, breaker.sendAsync(MESSAGE).cause());
+        assertEquals(4, upstream.messages.size());
+    }
+
+    @Test
+    void opensWhenSlowCallRateReachesThreshold() throws Exception {
+        final var breaker = breaker(0);
+        for (int i = 0; i < 4; i++) {
+            breaker.send(ofAuto(), MESSAGE);
+        }
+
+        assertThrows(CircuitOpenException.class, () -> breaker.send(ofAuto(), MESSAGE));
+    }
+
+    @Test
+    void closesAfterSucceededProbes() throws Exception {
+        final var breaker = opened();
+        NANOSECONDS.sleep(OPEN_DURATION + MILLISECONDS.toNanos(100));
+
+        healthy();
+        for (int i = 0; i < 10; i++) {
+            breaker.send(ofAuto(), MESSAGE);
+        }
+
+        assertEquals(14, upstream.messages.size());
+    }
+
+    @Test
+    void reopensOnFailedProbe() throws Exception {
+        final var breaker = opened();
+        NANOSECONDS.sleep(OPEN_DURATION + MILLISECONDS.toNanos(100));
+
+        assertThrows(SocketException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        assertThrows(CircuitOpenException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        assertEquals(5, upstream.messages.size());
+    }
+
+    @Test
+    void opensFromAsyncResponses() {
+        failing();
+        final var breaker = breaker(SECONDS.toNanos(10));
+
+        for (int i = 0; i < 4; i++) {
+            assertInstanceOf(SocketException.class, breaker.sendAsync(MESSAGE).cause());
+        }
+
+        assertInstanceOf(CircuitOpenException.class, breaker.sendAsync(MESSAGE).cause());
+    }
+
+    private CircuitBreaker opened() {
+        failing();
+        final var breaker = breaker(SECONDS.toNanos(10));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(SocketException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        }
+
+        assertThrows(CircuitOpenException.class, () -> breaker.send(ofAuto(), MESSAGE));
+        return breaker;
+    }
+
+    private CircuitBreaker breaker(final long slowCallDuration) {
+        return new CircuitBreaker(upstream, "gl", "test", SECONDS.toNanos(60), 4, 0.5, slowCallDuration, 0.5,
+                OPEN_DURATION, 2);
+    }
+
+    private void failing() {
+        upstream.responder = message -> {
+            throw new SocketException("connection reset");
+        };
+    }
+
+    private void healthy() {
+        upstream.responder = message -> message;
+    }
+}
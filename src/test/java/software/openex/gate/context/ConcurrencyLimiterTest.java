@@ -0,0 +1,111 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class ConcurrencyLimiterTest {
+    private static final long THRESHOLD = MILLISECONDS.toNanos(100);
+    private static final long FAST = MILLISECONDS.toNanos(1);
+    private static final long SLOW = MILLISECONDS.toNanos(200);
+
+    @Test
+    void rejectsAboveLimit() {
+        final var limiter = new ConcurrencyLimiter("gl", 2, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void decreasesLimitOnSlowResponses() {
+        final var limiter = new ConcurrencyLimiter("gl", 8, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW, false);
+
+        assertEquals(4, acquireAll(limiter));
+    }
+
+    @Test
+    void decreasesLimitOnDroppedResponses() {
+        final var limiter = new ConcurrencyLimiter("gl", 8, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true);
+
+        assertEquals(4, acquireAll(limiter));
+    }
+
+    @Test
+    void neverDecreasesLimitBelowMinimum() {
+        final var limiter = new ConcurrencyLimiter("gl", 8, 3, 10, THRESHOLD, 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(SLOW, true);
+        }
+
+        assertEquals(3, acquireAll(limiter));
+    }
+
+    @Test
+    void increasesLimitUpToMaximumWhileUsed() {
+        final var limiter = new ConcurrencyLimiter("gl", 4, 1, 6, THRESHOLD, 0.5);
+
+        for (int round = 0; round < 100; round++) {
+            final var acquired = acquireAll(limiter);
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        assertEquals(6, acquireAll(limiter));
+    }
+
+    @Test
+    void keepsLimitWhileMostlyIdle() {
+        final var limiter = new ConcurrencyLimiter("gl", 4, 1, 10, THRESHOLD, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(4, acquireAll(limiter));
+    }
+
+    private static int acquireAll(final ConcurrencyLimiter limiter) {
+        var acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+
+        return acquired;
+    }
+}
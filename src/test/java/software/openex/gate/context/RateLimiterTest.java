@@ -0,0 +1,89 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class RateLimiterTest {
+
+    @Test
+    void allowsBurstThenRejects() {
+        final var limiter = new RateLimiter(1, 5, MINUTES.toNanos(1), 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("client"));
+        }
+
+        assertFalse(limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        final var limiter = new RateLimiter(20, 1, MINUTES.toNanos(1), 100);
+
+        assertTrue(limiter.tryAcquire("client"));
+        assertFalse(limiter.tryAcquire("client"));
+
+        MILLISECONDS.sleep(100);
+        assertTrue(limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void limitsClientsIndependently() {
+        final var limiter = new RateLimiter(1, 2, MINUTES.toNanos(1), 100);
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void sharesOverflowBucketAboveMaxEntries() {
+        final var limiter = new RateLimiter(1, 2, MINUTES.toNanos(1), 1);
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+        assertTrue(limiter.tryAcquire("c"));
+        assertFalse(limiter.tryAcquire("b"));
+        assertTrue(limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void removesIdleClients() throws InterruptedException {
+        final var limiter = new RateLimiter(1, 1, MILLISECONDS.toNanos(20), 1);
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+        assertFalse(limiter.tryAcquire("c"));
+
+        // Bucket of a is full again after one second and idle after that.
+        MILLISECONDS.sleep(1_100);
+        assertTrue(limiter.tryAcquire("c"));
+        assertFalse(limiter.tryAcquire("c"));
+        assertTrue(limiter.tryAcquire("d"));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.typesafe.config.ConfigFactory.invalidateCaches;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class ShardRouterTest {
+    private static final String LEDGER_7 = "gl.routing.ledgers.7";
+
+    @AfterEach
+    void clearTable() {
+        System.clearProperty(LEDGER_7);
+        invalidateCaches();
+    }
+
+    @Test
+    void routesListedKeysToTheirShard() throws Exception {
+        System.setProperty(LEDGER_7, "b");
+        invalidateCaches();
+
+        final var shards = shards("a", "b", "c");
+        try (final var router = router(shards)) {
+            assertSame(shards.get("b"), router.route("7"));
+        }
+    }
+
+    @Test
+    void routesSameKeyToSameShard() throws Exception {
+        try (final var router = router(shards("a", "b", "c"))) {
+            for (int ledger = 0; ledger < 1000; ledger++) {
+                assertSame(router.route(String.valueOf(ledger)), router.route(String.valueOf(ledger)));
+            }
+        }
+    }
+
+    @Test
+    void spreadsKeysOverShards() throws Exception {
+        final var shards = shards("a", "b", "c");
+        final var counts = new HashMap<Upstream, Integer>();
+
+        try (final var router = router(shards)) {
+            for (int ledger = 0; ledger < 30_000; ledger++) {
+                counts.merge(router.route(String.valueOf(ledger)), 1, Integer::sum);
+            }
+        }
+
+        for (final var shard : shards.values()) {
+            final var count = counts.getOrDefault(shard, 0);
+            assertTrue(count > 6_000 && count < 14_000, "unbalanced shard with " + count + " keys");
+        }
+    }
+
+    @Test
+    void movesOnlyKeysOfRemovedShard() throws Exception {
+        final var shards = shards("a", "b", "c");
+        final var remaining = new LinkedHashMap<>(shards);
+        remaining.remove("c");
+
+        try (final var before = router(shards); final var after = router(remaining)) {
+            for (int ledger = 0; ledger < 10_000; ledger++) {
+                final var shard = before.route(String.valueOf(ledger));
+                if (shard != shards.get("c")) {
+                    assertSame(shard, after.route(String.valueOf(ledger)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsUnknownShardOfTable() {
+        System.setProperty(LEDGER_7, "x");
+        invalidateCaches();
+
+        assertThrows(IllegalArgumentException.class, () -> router(shards("a", "b")));
+    }
+
+    @Test
+    void rejectsNoShard() {
+        assertThrows(IllegalArgumentException.class, () -> router(Map.of()));
+    }
+
+    private static ShardRouter router(final Map<String, Upstream> shards) {
+        return new ShardRouter(new Configuration(), "gl", "ledgers", shards);
+    }
+
+    private static Map<String, Upstream> shards(final String... names) {
+        final var shards = new LinkedHashMap<String, Upstream>();
+        for (final var name : names) {
+            shards.put(name, new TestUpstream(message -> message));
+        }
+
+        return shards;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import io.vertx.core.Future;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+/**
+ * Upstream stub that records sent messages and answers them synchronously.
+ *
+ * @author Alireza Pourtaghi
+ */
+final class TestUpstream implements Upstream {
+    final List<MemorySegment> messages = new CopyOnWriteArrayList<>();
+    volatile Responder responder;
+
+    TestUpstream(final Responder responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public MemorySegment send(final Arena arena, final MemorySegment message) throws Exception {
+        final var copy = ofArray(message.toArray(JAVA_BYTE));
+        messages.add(copy);
+
+        return responder.respond(copy);
+    }
+
+    @Override
+    public Future<MemorySegment> sendAsync(final MemorySegment message) {
+        try {
+            return Future.succeededFuture(send(ofAuto(), message));
+        } catch (Exception ex) {
+            return Future.failedFuture(ex);
+        }
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @FunctionalInterface
+    interface Responder {
+        MemorySegment respond(MemorySegment message) throws Exception;
+    }
+}
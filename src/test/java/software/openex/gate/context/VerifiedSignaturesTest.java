@@ -0,0 +1,79 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.context;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class VerifiedSignaturesTest {
+    private static final byte[] SIGNATURE = {1, 2, 3};
+
+    @Test
+    void containsAddedContentAndSignature() {
+        final var signatures = new VerifiedSignatures(MINUTES.toNanos(1), 10);
+        signatures.add(content(1, "a"), SIGNATURE);
+
+        assertTrue(signatures.contains(content(1, "a"), SIGNATURE.clone()));
+        assertFalse(signatures.contains(content(1, "b"), SIGNATURE));
+        assertFalse(signatures.contains(content(1, "a"), new byte[]{1, 2, 4}));
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        final var signatures = new VerifiedSignatures(MILLISECONDS.toNanos(20), 10);
+        signatures.add(content(1, "a"), SIGNATURE);
+
+        MILLISECONDS.sleep(50);
+        assertFalse(signatures.contains(content(1, "a"), SIGNATURE));
+    }
+
+    @Test
+    void evictsOldestEntryWhenFull() {
+        final var signatures = new VerifiedSignatures(MINUTES.toNanos(1), 2);
+        signatures.add(content(1, "a"), SIGNATURE);
+        signatures.add(content(2, "a"), SIGNATURE);
+        signatures.add(content(3, "a"), SIGNATURE);
+
+        assertFalse(signatures.contains(content(1, "a"), SIGNATURE));
+        assertTrue(signatures.contains(content(2, "a"), SIGNATURE));
+        assertTrue(signatures.contains(content(3, "a"), SIGNATURE));
+    }
+
+    @Test
+    void matchesSignaturesThatOnlyDifferAfterHashedPrefix() {
+        final var signatures = new VerifiedSignatures(MINUTES.toNanos(1), 10);
+        final var signature = new byte[512];
+        signatures.add(content(1, "a"), signature);
+
+        final var other = signature.clone();
+        other[511] = 1;
+        assertTrue(signatures.contains(content(1, "a"), signature.clone()));
+        assertFalse(signatures.contains(content(1, "a"), other));
+    }
+
+    private static SignatureContent content(final long account, final String currency) {
+        return new SignatureContent().field(account).field(currency);
+    }
+}
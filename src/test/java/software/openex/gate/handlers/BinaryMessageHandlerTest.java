@@ -0,0 +1,113 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import org.junit.jupiter.api.Test;
+import software.openex.gate.binary.BinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.Batch;
+import software.openex.gate.binary.gl.transaction.BatchBinaryRepresentation;
+import software.openex.gate.binary.gl.transaction.Transaction;
+import software.openex.gate.binary.gl.transaction.TransactionBinaryRepresentation;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Set;
+
+import static java.lang.foreign.Arena.ofAuto;
+import static java.lang.foreign.MemorySegment.ofArray;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static software.openex.gate.binary.BinaryRepresentable.*;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class BinaryMessageHandlerTest {
+    private static final Set<Integer> IDS = Set.of(202, 203);
+
+    @Test
+    void acceptsWellFormedMessage() {
+        assertTrue(BinaryMessageHandler.isValid(batch(1, 2), IDS));
+    }
+
+    @Test
+    void rejectsMalformedHeaders() {
+        assertFalse(BinaryMessageHandler.isValid(ofArray(new byte[RHS - 1]), IDS));
+        assertFalse(BinaryMessageHandler.isValid(batch(1, 2), Set.of(103)));
+
+        final var version = copy(batch(1, 2));
+        version.set(JAVA_BYTE, 0, (byte) 2);
+        assertFalse(BinaryMessageHandler.isValid(version, IDS));
+
+        final var correlated = copy(batch(1, 2));
+        correlated.set(JAVA_BYTE, 1, (byte) (flags(correlated) | CID));
+        assertFalse(BinaryMessageHandler.isValid(correlated, IDS));
+    }
+
+    @Test
+    void rejectsSizeThatDoesNotMatchBody() {
+        final var message = batch(1, 2);
+
+        assertFalse(BinaryMessageHandler.isValid(message.asSlice(0, message.byteSize() - 1), IDS));
+        assertFalse(BinaryMessageHandler.isValid(copy(message, message.byteSize() + 1), IDS));
+    }
+
+    @Test
+    void readsFieldsOnlyWithinMessage() {
+        final var symbol = "BTC/USDT".getBytes(UTF_8);
+        final var message = ofArray(new byte[RHS + 4 + symbol.length + 1]);
+        message.set(INT, RHS, symbol.length + 1);
+        MemorySegment.copy(ofArray(symbol), 0, message, RHS + 4, symbol.length);
+
+        assertEquals(symbol.length + 1, BinaryMessageHandler.readInt(message, RHS));
+        assertNull(BinaryMessageHandler.readInt(message, message.byteSize() - 3));
+        assertEquals("BTC/USDT", BinaryMessageHandler.readString(message, RHS));
+        assertNull(BinaryMessageHandler.readString(message.asSlice(0, message.byteSize() - 1), RHS));
+
+        message.set(INT, RHS, 0);
+        assertNull(BinaryMessageHandler.readString(message, RHS));
+    }
+
+    static MemorySegment batch(final int... ledgers) {
+        final var arena = ofAuto();
+        final var transactions = new ArrayList<BinaryRepresentation<Transaction>>(ledgers.length);
+        for (int i = 0; i < ledgers.length; i++) {
+            final var transaction = new TransactionBinaryRepresentation(arena,
+                    new Transaction(ledgers[i], 1, 1, 2, 1, "t" + i, "IRR", 10, 0, ""));
+            transaction.encodeV1();
+            transactions.add(transaction);
+        }
+
+        final var batch = new BatchBinaryRepresentation(arena, new Batch(transactions));
+        batch.encodeV1();
+
+        return batch.segment();
+    }
+
+    private static MemorySegment copy(final MemorySegment message) {
+        return copy(message, message.byteSize());
+    }
+
+    private static MemorySegment copy(final MemorySegment message, final long size) {
+        final var copy = ofArray(new byte[(int) size]);
+        MemorySegment.copy(message, 0, copy, 0, Math.min(size, message.byteSize()));
+
+        return copy;
+    }
+}
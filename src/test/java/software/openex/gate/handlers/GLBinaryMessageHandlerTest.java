@@ -0,0 +1,64 @@
+/*
+ * ISC License
+ *
+ * Copyright (c) 2025, Alireza Pourtaghi <lirezap@protonmail.com>
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package software.openex.gate.handlers;
+
+import org.junit.jupiter.api.Test;
+
+import static java.lang.foreign.MemorySegment.ofArray;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static software.openex.gate.binary.BinaryRepresentable.INT;
+import static software.openex.gate.binary.BinaryRepresentable.RHS;
+import static software.openex.gate.handlers.BinaryMessageHandlerTest.batch;
+
+/**
+ * @author Alireza Pourtaghi
+ */
+class GLBinaryMessageHandlerTest {
+
+    @Test
+    void readsLedgersOfBatchTransactions() {
+        assertArrayEquals(new int[]{3, 7, 9}, GLBinaryMessageHandler.ledgers(batch(3, 7, 9)));
+        assertArrayEquals(new int[]{}, GLBinaryMessageHandler.ledgers(batch()));
+    }
+
+    @Test
+    void rejectsMalformedBatches() {
+        final var message = batch(3, 7, 9);
+
+        assertNull(GLBinaryMessageHandler.ledgers(message.asSlice(0, message.byteSize() - 1)));
+        assertNull(GLBinaryMessageHandler.ledgers(message.asSlice(0, RHS + 2)));
+
+        message.set(INT, RHS, Integer.MAX_VALUE);
+        assertNull(GLBinaryMessageHandler.ledgers(message));
+    }
+
+    @Test
+    void rejectsTransactionsThatDoNotFitInTheirSize() {
+        // A batch of one transaction whose body only has its ledger.
+        final var message = ofArray(new byte[RHS + 4 + RHS + 4]);
+        message.set(INT, RHS, 1);
+        message.set(INT, RHS + 4 + RHS - 4, 4);
+        message.set(INT, RHS + 4 + RHS, 7);
+
+        assertArrayEquals(new int[]{7}, GLBinaryMessageHandler.ledgers(message));
+        assertNull(GLBinaryMessageHandler.transactions(message));
+        assertEquals(3, GLBinaryMessageHandler.transactions(batch(3, 7, 9)).length);
+    }
+}